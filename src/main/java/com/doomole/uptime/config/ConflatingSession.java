@@ -0,0 +1,280 @@
+package com.doomole.uptime.config;
+
+import com.doomole.uptime.service.HealthEventBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.standard.StandardWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 세션별 bounded outbound 큐. sendMessage 는 큐에 넣고 바로 리턴하고, 실제 소켓 쓰기는 drain 풀이 한다.
+ * 클라이언트가 느려 큐가 쌓이면
+ * - /topic/health/{id} : 목적지(=모니터)별 최신 프레임 1개만 남긴다
+ * - /topic/health      : 밀린 집계 프레임들을 하나로 합친다 (healthCheckId 별 최신, seq 범위는 fromSeq~seq → gap 없음)
+ * - /topic/rooms/**  : 최근 chatBacklog 개만 남기고 오래된 것부터 버린다 (놓친 건 /api/chat/history)
+ * - 그 외(CONNECTED/RECEIPT/ERROR/스냅샷 응답/heartbeat) : 버리지 않는다. maxQueued 를 넘기면 세션을 닫는다
+ */
+@Slf4j
+final class ConflatingSession extends WebSocketSessionDecorator {
+    private static final String FLEET = HealthEventBroadcaster.FLEET_TOPIC;
+
+    private final WsOutboundQueues owner;
+    private final ObjectMapper json;
+    private final ObjectMapper cbor;
+    private final Executor drainExecutor;
+    private final RemoteEndpoint.Async async; // raw WebSocket(JSR-356 어댑터)일 때만
+    private final int chatBacklog;
+    private final int maxQueued;
+
+    // 삽입 순서 = 전송 순서. conflate 대상은 목적지 문자열, 나머지는 고유 키
+    private final LinkedHashMap<Object, WebSocketMessage<?>> queue = new LinkedHashMap<>();
+    private final ArrayDeque<Object> chatKeys = new ArrayDeque<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private FleetFrame fleet; // 큐에 fleet 프레임이 2개 이상 밀렸을 때만 만든다 (queue 락으로 보호)
+
+    private volatile long sendStartedNs;
+    private volatile long sent;
+    private volatile long conflated;
+    private volatile long dropped;
+    private volatile int maxDepth;
+
+    ConflatingSession(WebSocketSession delegate, WsOutboundQueues owner, ObjectMapper json, ObjectMapper cbor,
+                      Executor drainExecutor, int chatBacklog, int maxQueued, long sendTimeLimitMs) {
+        super(delegate);
+        this.owner = owner;
+        this.json = json;
+        this.cbor = cbor;
+        this.drainExecutor = drainExecutor;
+        this.async = asyncRemote(delegate, sendTimeLimitMs);
+        this.chatBacklog = chatBacklog;
+        this.maxQueued = maxQueued;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) {
+        if (!isOpen()) return;
+        String destination = destinationOf(message);
+        boolean overflow;
+        synchronized (queue) {
+            if (FLEET.equals(destination)) {
+                enqueueFleet(message);
+            } else if (destination != null && destination.startsWith(FLEET + "/")) {
+                if (queue.put(destination, message) != null) { // 기존 자리 유지 + 최신으로 교체
+                    conflated++;
+                    owner.conflated();
+                }
+            } else if (destination != null && destination.startsWith("/topic/rooms/")) {
+                Object key = new Object();
+                queue.put(key, message);
+                chatKeys.addLast(key);
+                while (chatKeys.size() > chatBacklog) {
+                    queue.remove(chatKeys.pollFirst());
+                    dropped++;
+                    owner.dropped();
+                }
+            } else {
+                queue.put(new Object(), message);
+            }
+            maxDepth = Math.max(maxDepth, queue.size());
+            overflow = queue.size() > maxQueued;
+        }
+        if (overflow) {
+            log.warn("WS outbound queue overflow, closing session={} depth={}", getId(), depth());
+            closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+            return;
+        }
+        if (scheduled.compareAndSet(false, true)) drainExecutor.execute(this::drain);
+    }
+
+    /*
+     * 한 번에 한 프레임만 보내고, 다음 프레임은 다시 drain 풀에 넣는다 (세션 간 번갈아 보냄).
+     * raw WebSocket 은 컨테이너 async 전송이라 풀 스레드가 소켓 쓰기에 묶이지 않는다.
+     * SockJS 등 그 외 세션은 blocking 전송이며, 막히면 WsOutboundQueues 의 watchdog 이 sendTimeLimit 후 세션을 닫는다.
+     */
+    private void drain() {
+        WebSocketMessage<?> next = poll();
+        if (next == null) return;
+        sendStartedNs = System.nanoTime();
+        if (async != null && sendAsync(next)) return; // 완료 콜백에서 이어감
+        try {
+            getDelegate().sendMessage(next);
+            sendDone(null);
+        } catch (Exception e) {
+            sendDone(e);
+        }
+    }
+
+    private WebSocketMessage<?> poll() {
+        synchronized (queue) {
+            Iterator<Map.Entry<Object, WebSocketMessage<?>>> it = queue.entrySet().iterator();
+            if (!it.hasNext()) {
+                scheduled.set(false); // 락 안에서 내려야 sendMessage 가 빈 큐로 오인하지 않는다
+                return null;
+            }
+            Map.Entry<Object, WebSocketMessage<?>> head = it.next();
+            it.remove();
+            if (chatKeys.peekFirst() == head.getKey()) chatKeys.pollFirst();
+            return FLEET.equals(head.getKey()) ? takeFleet(head.getValue()) : head.getValue();
+        }
+    }
+
+    private boolean sendAsync(WebSocketMessage<?> message) {
+        SendHandler handler = result -> sendDone(result.isOK() ? null : result.getException());
+        try {
+            if (message instanceof TextMessage text) async.sendText(text.getPayload(), handler);
+            else if (message instanceof BinaryMessage binary) async.sendBinary(binary.getPayload(), handler);
+            else return false; // ping/pong 은 blocking 경로로
+        } catch (Exception e) {
+            sendDone(e);
+        }
+        return true;
+    }
+
+    private void sendDone(Throwable error) {
+        sendStartedNs = 0;
+        if (error != null) {
+            log.debug("WS send failed session={}: {}", getId(), error.toString());
+            clear();
+            scheduled.set(false);
+            return;
+        }
+        sent++;
+        drainExecutor.execute(this::drain); // scheduled 유지한 채 다음 프레임
+    }
+
+    /** 진행 중인 전송이 시작된 지 몇 ms 인지 (전송 중이 아니면 0) */
+    long sendingForMs(long nowNs) {
+        long started = sendStartedNs;
+        return started == 0 ? 0 : (nowNs - started) / 1_000_000;
+    }
+
+    /** 전송이 sendTimeLimit 를 넘겨 막힌 세션: 큐를 버리고 닫는다 (소켓이 닫히면 막힌 쓰기도 풀린다) */
+    void abort() {
+        closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    // fleet 프레임은 큐에 최대 1자리. 이미 있으면 합친다 (queue 락 안에서)
+    private void enqueueFleet(WebSocketMessage<?> message) {
+        WebSocketMessage<?> queued = queue.get(FLEET);
+        if (queued == null) {
+            queue.put(FLEET, message);
+            return;
+        }
+        try {
+            if (fleet == null) fleet = FleetFrame.parse(queued, json, cbor);
+            fleet.merge(message);
+        } catch (Exception e) {
+            // 합칠 수 없는 프레임이면 통째로 교체 (클라이언트는 seq gap 으로 resync)
+            log.debug("Fleet frame merge failed session={}: {}", getId(), e.toString());
+            fleet = null;
+            queue.put(FLEET, message);
+        }
+        conflated++;
+        owner.conflated();
+    }
+
+    // queue 락 안에서 호출
+    private WebSocketMessage<?> takeFleet(WebSocketMessage<?> queued) {
+        FleetFrame merged = fleet;
+        fleet = null;
+        if (merged == null) return queued;
+        try {
+            return merged.render();
+        } catch (Exception e) {
+            log.debug("Fleet frame render failed session={}: {}", getId(), e.toString());
+            return queued;
+        }
+    }
+
+    void clear() {
+        synchronized (queue) {
+            queue.clear();
+            chatKeys.clear();
+            fleet = null;
+        }
+    }
+
+    int depth() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    private static RemoteEndpoint.Async asyncRemote(WebSocketSession delegate, long sendTimeLimitMs) {
+        if (!(WebSocketSessionDecorator.unwrap(delegate) instanceof StandardWebSocketSession standard)) return null;
+        RemoteEndpoint.Async async = standard.getNativeSession().getAsyncRemote();
+        async.setSendTimeout(sendTimeLimitMs);
+        return async;
+    }
+
+    Map<String, Object> status() {
+        return Map.of(
+                "sessionId", getId(),
+                "depth", depth(),
+                "maxDepth", maxDepth,
+                "sent", sent,
+                "conflated", conflated,
+                "dropped", dropped,
+                "sendingForMs", sendingForMs(System.nanoTime())
+        );
+    }
+
+    private void closeQuietly(CloseStatus status) {
+        clear();
+        try {
+            close(status);
+        } catch (Exception e) {
+            log.debug("WS close failed session={}: {}", getId(), e.toString());
+        }
+    }
+
+    // STOMP MESSAGE 프레임의 destination 헤더 (그 외 프레임은 null). StompEncoder 는 LF 로만 구분한다
+    static String destinationOf(WebSocketMessage<?> message) {
+        String head;
+        if (message instanceof TextMessage text) {
+            String p = text.getPayload();
+            if (!p.startsWith("MESSAGE\n")) return null;
+            int end = p.indexOf("\n\n");
+            head = end < 0 ? p : p.substring(0, end);
+        } else if (message instanceof BinaryMessage binary) {
+            head = binaryHead(binary.getPayload());
+            if (head == null || !head.startsWith("MESSAGE\n")) return null;
+        } else {
+            return null;
+        }
+        int i = head.indexOf("\ndestination:");
+        if (i < 0) return null;
+        int start = i + "\ndestination:".length();
+        int end = head.indexOf('\n', start);
+        return head.substring(start, end < 0 ? head.length() : end);
+    }
+
+    private static String binaryHead(ByteBuffer payload) {
+        ByteBuffer buf = payload.duplicate();
+        int limit = Math.min(buf.limit(), buf.position() + 4096);
+        for (int i = buf.position(); i + 1 < limit; i++) {
+            if (buf.get(i) == '\n' && buf.get(i + 1) == '\n') {
+                byte[] bytes = new byte[i - buf.position()];
+                buf.get(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,151 @@
+package com.doomole.uptime.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 느린 세션 큐에 밀려 있는 /topic/health 집계 프레임들을 하나로 합친 것.
+ * events 는 healthCheckId 별 최신 1건으로 합치고 seq 는 가장 큰 값, fromSeq 는 가장 작은 값을 유지한다.
+ * 클라이언트는 fromSeq ≤ 마지막 seq + 1 이면 gap 없이 이어 붙일 수 있다.
+ * STOMP 헤더(구독 id 등)는 마지막 프레임 것을 쓰고 content-length 만 다시 계산한다.
+ */
+final class FleetFrame {
+    private static final String CONTENT_LENGTH = "content-length:";
+
+    private final ObjectMapper mapper; // 프레임 인코딩(JSON/CBOR)에 맞는 mapper
+    private final boolean binary;
+    private String head;
+    private long fromSeq;
+    private long seq;
+    private long sentAt;
+    private final Map<Long, JsonNode> events = new LinkedHashMap<>();
+
+    private FleetFrame(ObjectMapper mapper, boolean binary) {
+        this.mapper = mapper;
+        this.binary = binary;
+    }
+
+    /** CBOR 세션 프레임(x-encoding:cbor)은 cbor mapper 로, 나머지는 json mapper 로 읽는다 */
+    static FleetFrame parse(WebSocketMessage<?> message, ObjectMapper json, ObjectMapper cbor) throws IOException {
+        Parts parts = Parts.of(message);
+        boolean isCbor = parts.head.contains("\n" + StompEncodingInterceptor.ENCODING_HEADER + ":" + StompEncodingInterceptor.CBOR);
+        FleetFrame frame = new FleetFrame(isCbor ? cbor : json, parts.binary);
+        frame.fromSeq = Long.MAX_VALUE;
+        frame.apply(parts);
+        return frame;
+    }
+
+    void merge(WebSocketMessage<?> message) throws IOException {
+        apply(Parts.of(message));
+    }
+
+    long seq() {
+        return seq;
+    }
+
+    int size() {
+        return events.size();
+    }
+
+    WebSocketMessage<?> render() throws IOException {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("seq", seq);
+        root.put("fromSeq", fromSeq);
+        root.put("sentAt", sentAt);
+        ArrayNode array = root.putArray("events");
+        events.values().forEach(array::add);
+        byte[] body = mapper.writeValueAsBytes(root);
+
+        byte[] headBytes = (withContentLength(head, body.length) + "\n\n").getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[headBytes.length + body.length + 1];
+        System.arraycopy(headBytes, 0, frame, 0, headBytes.length);
+        System.arraycopy(body, 0, frame, headBytes.length, body.length);
+        // 마지막 바이트는 0 (STOMP 프레임 종료)
+        return binary ? new BinaryMessage(frame) : new TextMessage(frame);
+    }
+
+    private void apply(Parts parts) throws IOException {
+        JsonNode root = mapper.readTree(parts.body);
+        long frameSeq = root.path("seq").asLong();
+        fromSeq = Math.min(fromSeq, root.has("fromSeq") ? root.get("fromSeq").asLong() : frameSeq);
+        if (frameSeq >= seq) {
+            seq = frameSeq;
+            sentAt = root.path("sentAt").asLong();
+            head = parts.head;
+        }
+        for (JsonNode e : root.path("events")) {
+            long id = e.path("healthCheckId").asLong();
+            JsonNode prev = events.get(id);
+            if (prev == null || e.path("observedAt").asLong() >= prev.path("observedAt").asLong()) events.put(id, e);
+        }
+    }
+
+    static String withContentLength(String head, int length) {
+        StringBuilder sb = new StringBuilder(head.length() + 24);
+        boolean replaced = false;
+        for (String line : head.split("\n", -1)) {
+            if (sb.length() > 0) sb.append('\n');
+            if (line.startsWith(CONTENT_LENGTH)) {
+                sb.append(CONTENT_LENGTH).append(length);
+                replaced = true;
+            } else {
+                sb.append(line);
+            }
+        }
+        if (!replaced) sb.append('\n').append(CONTENT_LENGTH).append(length);
+        return sb.toString();
+    }
+
+    // STOMP 프레임 = 헤더 + "\n\n" + 본문 + "\0"
+    private record Parts(String head, byte[] body, boolean binary) {
+        static Parts of(WebSocketMessage<?> message) throws IOException {
+            byte[] frame;
+            boolean binary;
+            if (message instanceof TextMessage text) {
+                frame = text.asBytes();
+                binary = false;
+            } else if (message instanceof BinaryMessage bin) {
+                ByteBuffer buf = bin.getPayload().duplicate();
+                frame = new byte[buf.remaining()];
+                buf.get(frame);
+                binary = true;
+            } else {
+                throw new IOException("Unsupported message " + message.getClass().getSimpleName());
+            }
+            int sep = indexOfBlankLine(frame);
+            if (sep < 0) throw new IOException("Malformed STOMP frame");
+            String head = new String(frame, 0, sep, StandardCharsets.UTF_8);
+            // content-length 가 있으면 그대로, 없으면 마지막 NULL 하나만 뗀다 (CBOR 본문은 0 으로 끝날 수 있음)
+            int length = contentLength(head);
+            if (length < 0) length = frame.length - (sep + 2) - (frame[frame.length - 1] == 0 ? 1 : 0);
+            byte[] body = new byte[length];
+            System.arraycopy(frame, sep + 2, body, 0, length);
+            return new Parts(head, body, binary);
+        }
+
+        private static int contentLength(String head) {
+            for (String line : head.split("\n")) {
+                if (line.startsWith(CONTENT_LENGTH)) return Integer.parseInt(line.substring(CONTENT_LENGTH.length()).trim());
+            }
+            return -1;
+        }
+
+        private static int indexOfBlankLine(byte[] frame) {
+            for (int i = 0; i + 1 < frame.length; i++) {
+                if (frame[i] == '\n' && frame[i + 1] == '\n') return i;
+            }
+            return -1;
+        }
+    }
+}
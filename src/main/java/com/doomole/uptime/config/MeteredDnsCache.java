@@ -0,0 +1,59 @@
+package com.doomole.uptime.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.dns.DnsRecord;
+import io.netty.resolver.dns.DnsCache;
+import io.netty.resolver.dns.DnsCacheEntry;
+
+import java.net.InetAddress;
+import java.util.List;
+
+/**
+ * 히트/미스를 세는 DnsCache 래퍼.
+ * - hit: 유효한 주소 캐시 / negative: 캐시된 실패(NXDOMAIN 등) / miss: 실제 질의로 이어짐
+ */
+class MeteredDnsCache implements DnsCache {
+    private final DnsCache delegate;
+    private final Counter hit;
+    private final Counter negativeHit;
+    private final Counter miss;
+
+    MeteredDnsCache(DnsCache delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.hit = meterRegistry.counter("uptime.probe.dns.cache", "result", "hit");
+        this.negativeHit = meterRegistry.counter("uptime.probe.dns.cache", "result", "negative");
+        this.miss = meterRegistry.counter("uptime.probe.dns.cache", "result", "miss");
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean clear(String hostname) {
+        return delegate.clear(hostname);
+    }
+
+    @Override
+    public List<? extends DnsCacheEntry> get(String hostname, DnsRecord[] additionals) {
+        List<? extends DnsCacheEntry> entries = delegate.get(hostname, additionals);
+        if (entries == null || entries.isEmpty()) miss.increment();
+        else if (entries.get(0).cause() != null) negativeHit.increment();
+        else hit.increment();
+        return entries;
+    }
+
+    @Override
+    public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, InetAddress address,
+                               long originalTtl, EventLoop loop) {
+        return delegate.cache(hostname, additionals, address, originalTtl, loop);
+    }
+
+    @Override
+    public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, Throwable cause, EventLoop loop) {
+        return delegate.cache(hostname, additionals, cause, loop);
+    }
+}
@@ -0,0 +1,164 @@
+package com.doomole.uptime.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 세션별 STOMP 페이로드 인코딩 협상 (JSON 기본, CBOR 선택).
+ * - CONNECT 헤더 {@value #ENCODING_HEADER}: cbor 인 세션은 health/chat/스냅샷 프레임을 CBOR 로 받는다
+ * - 브로커는 JSON 으로 한 번만 직렬화하고, 여기서 구독자에게 나가기 직전에 바꾼다.
+ *   브로커는 같은 payload 배열을 구독자 전원에게 돌려쓰므로 직전 변환 결과를 재사용해 프레임당 1회만 변환한다
+ * - 바이너리 프레임은 raw WebSocket(/ws/websocket)에서만 된다. SockJS 는 텍스트 전송이라 JSON 그대로 둔다
+ * - 클라이언트가 content-type application/cbor 로 SEND 하면 JSON 으로 바꿔서 @MessageMapping 에 넘긴다
+ */
+@Slf4j
+@Component
+public class StompEncodingInterceptor implements ChannelInterceptor, HandshakeInterceptor {
+    public static final String ENCODING_HEADER = "x-encoding";
+    public static final String CBOR = "cbor";
+    static final MimeType APPLICATION_CBOR = MimeType.valueOf("application/cbor");
+    private static final String RAW_WS_ATTR = "uptime.rawWebSocket";
+
+    private static final Set<String> BINARY_PREFIXES = Set.of("/topic/health", "/topic/rooms/", "/app/health");
+
+    private final ObjectMapper objectMapper;
+    private final CBORMapper cborMapper = new CBORMapper();
+    private final Map<String, String> sessionEncodings = new ConcurrentHashMap<>();
+    private final Counter cborFrames;
+    private final Counter cborEncodes;
+
+    private volatile Encoded last; // 직전 변환 (payload 동일성 비교)
+
+    public StompEncodingInterceptor(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.cborFrames = meterRegistry.counter("uptime.ws.encoding.frames", "encoding", CBOR);
+        this.cborEncodes = meterRegistry.counter("uptime.ws.encoding.encodes", "encoding", CBOR);
+        meterRegistry.gauge("uptime.ws.encoding.sessions", Tags.of("encoding", CBOR), sessionEncodings, Map::size);
+    }
+
+    // ===== 핸드셰이크: raw WebSocket 인지 기록 (SockJS 의 /ws/{server}/{session}/websocket 과 구분) =====
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        if (request.getURI().getPath().endsWith("/ws/websocket")) attributes.put(RAW_WS_ATTR, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    // ===== clientInboundChannel / clientOutboundChannel =====
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (type == SimpMessageType.CONNECT) {
+            negotiate(message);
+            return message;
+        }
+        if (type == SimpMessageType.MESSAGE && message.getPayload() instanceof byte[] payload) {
+            return outbound(message, payload);
+        }
+        // 클라이언트 SEND: CBOR → JSON
+        MimeType contentType = SimpMessageHeaderAccessor.getContentType(message.getHeaders());
+        if (contentType != null && APPLICATION_CBOR.equalsTypeAndSubtype(contentType)
+                && message.getPayload() instanceof byte[] payload) {
+            try {
+                SimpMessageHeaderAccessor acc = SimpMessageHeaderAccessor.wrap(message);
+                acc.setContentType(MimeTypeUtils.APPLICATION_JSON);
+                return MessageBuilder.createMessage(objectMapper.writeValueAsBytes(cborMapper.readTree(payload)),
+                        acc.getMessageHeaders());
+            } catch (Exception e) {
+                log.warn("CBOR decode failed session={}: {}",
+                        SimpMessageHeaderAccessor.getSessionId(message.getHeaders()), e.toString());
+                return null; // 깨진 프레임은 버린다
+            }
+        }
+        return message;
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessionEncodings.remove(event.getSessionId());
+    }
+
+    private void negotiate(Message<?> message) {
+        StompHeaderAccessor acc = StompHeaderAccessor.wrap(message);
+        if (acc.getCommand() != StompCommand.CONNECT && acc.getCommand() != StompCommand.STOMP) return;
+        String requested = acc.getFirstNativeHeader(ENCODING_HEADER);
+        if (!CBOR.equalsIgnoreCase(requested)) return;
+        Map<String, Object> attrs = acc.getSessionAttributes();
+        if (attrs == null || !Boolean.TRUE.equals(attrs.get(RAW_WS_ATTR))) {
+            log.debug("CBOR requested over SockJS, staying on JSON session={}", acc.getSessionId());
+            return;
+        }
+        sessionEncodings.put(acc.getSessionId(), CBOR);
+    }
+
+    private Message<?> outbound(Message<?> message, byte[] payload) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null || !CBOR.equals(sessionEncodings.get(sessionId))) return message;
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || BINARY_PREFIXES.stream().noneMatch(destination::startsWith)) return message;
+        MimeType contentType = SimpMessageHeaderAccessor.getContentType(message.getHeaders());
+        if (contentType != null && !MimeTypeUtils.APPLICATION_JSON.equalsTypeAndSubtype(contentType)) return message;
+
+        byte[] encoded;
+        try {
+            encoded = encode(payload);
+        } catch (Exception e) {
+            log.warn("CBOR encode failed destination={}: {}", destination, e.toString());
+            return message;
+        }
+        SimpMessageHeaderAccessor acc = SimpMessageHeaderAccessor.wrap(message);
+        // StompSubProtocolHandler 는 octet-stream 일 때만 바이너리 WS 프레임으로 보낸다
+        acc.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        acc.setNativeHeader(ENCODING_HEADER, CBOR);
+        cborFrames.increment();
+        return MessageBuilder.createMessage(encoded, acc.getMessageHeaders());
+    }
+
+    private byte[] encode(byte[] json) throws Exception {
+        Encoded e = last;
+        if (e != null && e.json == json) return e.cbor;
+        byte[] cbor = toCbor(objectMapper, cborMapper, json);
+        last = new Encoded(json, cbor);
+        cborEncodes.increment();
+        return cbor;
+    }
+
+    /** JSON 바이트 → CBOR 바이트 (필드 이름/구조 그대로) */
+    public static byte[] toCbor(ObjectMapper json, CBORMapper cbor, byte[] payload) throws Exception {
+        return cbor.writeValueAsBytes(json.readTree(payload));
+    }
+
+    private record Encoded(byte[] json, byte[] cbor) {}
+}
@@ -1,20 +1,45 @@
 package com.doomole.uptime.config;
 
+import com.doomole.uptime.domain.ProbeTimings;
 import com.doomole.uptime.filter.CorrelationIdFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import io.netty.resolver.dns.DefaultDnsCache;
+import io.netty.resolver.dns.DnsAddressResolverGroup;
+import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.netty.resolver.dns.DnsServerAddressStreamProvider;
+import io.netty.resolver.dns.DnsServerAddressStreamProviders;
+import io.netty.resolver.dns.SequentialDnsServerAddressStreamProvider;
+import io.netty.util.AttributeKey;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.Connection;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
 
+import javax.net.ssl.SSLException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -28,7 +53,17 @@ public class WebClientConfig {
 
     private static final long WC_SLOW_MS         = 1_000; // 느린 외부호출 기준
 
+    private static final long PROBE_MAX_IDLE_S       = 30;
+    private static final long PROBE_MAX_LIFE_M       = 5;
+    private static final int  TLS_SESSION_CACHE_SIZE = 4_096;
+    private static final long TLS_SESSION_TIMEOUT_S  = 3_600;
+    private static final long DNS_QUERY_TIMEOUT_MS   = 3_000;
+    private static final int  DNS_DEFAULT_PORT       = 53;
+
+    private static final AttributeKey<ConnectionTimings> CONN_TIMINGS = AttributeKey.valueOf("probe.connTimings");
+
     @Bean
+    @Primary
     public WebClient webClient() {
         HttpClient httpClient = HttpClient.create()
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT_MS)
@@ -45,6 +80,177 @@ public class WebClientConfig {
                 .build();
     }
 
+    /**
+     * 프로브 전용 커넥션 풀.
+     * reactor-netty 풀은 원격 주소(host:port)별로 따로 잡히므로 maxConnections 는 "호스트당" 상한이다.
+     * idle 커넥션은 keep-alive 로 재사용하고, 오래된 커넥션은 백그라운드에서 정리한다.
+     * metrics(true) → reactor.netty.connection.provider.{active,idle,pending,total}.connections
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider probeConnectionProvider(
+            @Value("${uptime.probe.pool.maxConnectionsPerHost:8}") int maxConnectionsPerHost,
+            @Value("${uptime.probe.pool.pendingAcquireMaxCount:64}") int pendingAcquireMaxCount) {
+        return ConnectionProvider.builder("probe")
+                .maxConnections(maxConnectionsPerHost)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofSeconds(RESPONSE_TIMEOUT_S))
+                .maxIdleTime(Duration.ofSeconds(PROBE_MAX_IDLE_S))
+                .maxLifeTime(Duration.ofMinutes(PROBE_MAX_LIFE_M))
+                .evictInBackground(Duration.ofSeconds(PROBE_MAX_IDLE_S))
+                .metrics(true)
+                .build();
+    }
+
+    /** 프로브 전용 이벤트 루프. DNS resolver 가 NIO UDP 채널을 쓰므로 native transport 를 끈다 */
+    @Bean(destroyMethod = "dispose")
+    public LoopResources probeLoopResources() {
+        return LoopResources.create("probe");
+    }
+
+    /**
+     * 프로브 공용 비동기 DNS resolver (이벤트 루프별 resolver 가 캐시 하나를 공유).
+     * 레코드 TTL 을 따르되 [minTtl, maxTtl] 로 자르고, NXDOMAIN 등 실패는 negativeTtl 동안 캐시한다.
+     * 같은 이름에 대한 동시 질의는 한 번으로 합쳐진다.
+     * uptime.probe.dns.servers 를 주면 해당 네임서버만 사용(예: 로컬 stub 127.0.0.1:5353), 비우면 시스템 설정.
+     */
+    @Bean(destroyMethod = "close")
+    public DnsAddressResolverGroup probeDnsResolver(
+            MeterRegistry meterRegistry,
+            @Value("${uptime.probe.dns.minTtlSeconds:0}") int minTtl,
+            @Value("${uptime.probe.dns.maxTtlSeconds:300}") int maxTtl,
+            @Value("${uptime.probe.dns.negativeTtlSeconds:30}") int negativeTtl,
+            @Value("${uptime.probe.dns.servers:}") String servers) {
+        DnsNameResolverBuilder builder = new DnsNameResolverBuilder()
+                .channelType(NioDatagramChannel.class)
+                .queryTimeoutMillis(DNS_QUERY_TIMEOUT_MS)
+                .resolveCache(new MeteredDnsCache(new DefaultDnsCache(minTtl, maxTtl, negativeTtl), meterRegistry))
+                .nameServerProvider(nameServers(servers));
+        log.info("Probe DNS cache ttl=[{}s,{}s] negativeTtl={}s servers={}",
+                minTtl, maxTtl, negativeTtl, servers.isBlank() ? "system" : servers);
+        return new DnsAddressResolverGroup(builder);
+    }
+
+    private static DnsServerAddressStreamProvider nameServers(String servers) {
+        if (servers.isBlank()) return DnsServerAddressStreamProviders.platformDefault();
+        InetSocketAddress[] addresses = Arrays.stream(servers.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(s -> {
+                    int sep = s.lastIndexOf(':');
+                    return sep < 0
+                            ? new InetSocketAddress(s, DNS_DEFAULT_PORT)
+                            : new InetSocketAddress(s.substring(0, sep), Integer.parseInt(s.substring(sep + 1)));
+                })
+                .toArray(InetSocketAddress[]::new);
+        return new SequentialDnsServerAddressStreamProvider(addresses);
+    }
+
+    /**
+     * 헬스체크 프로브 전용 WebClient.
+     * 일반 webClient 와 풀을 분리하고, TLS 세션 캐시를 키워 재연결 시에도 세션 재개(resumption)를 노린다.
+     * 커넥션 수립 구간(DNS/connect/TLS)은 채널 속성에 기록해 두었다가, 그 커넥션의 첫 요청에서
+     * Reactor Context 의 ProbeTimings 로 넘기고, 요청 송신~응답 헤더(TTFB)도 같은 곳에 남긴다.
+     */
+    @Bean
+    public WebClient probeWebClient(ConnectionProvider probeConnectionProvider,
+                                    LoopResources probeLoopResources,
+                                    DnsAddressResolverGroup probeDnsResolver) throws SSLException {
+        SslContext sslContext = SslContextBuilder.forClient()
+                .sessionCacheSize(TLS_SESSION_CACHE_SIZE)
+                .sessionTimeout(TLS_SESSION_TIMEOUT_S)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(probeConnectionProvider)
+                .runOn(probeLoopResources, false)
+                .resolver(probeDnsResolver)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT_MS)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .secure(spec -> spec.sslContext(sslContext))
+                .responseTimeout(Duration.ofSeconds(RESPONSE_TIMEOUT_S))
+                .doOnChannelInit((observer, channel, remoteAddress) -> {
+                    ConnectionTimings t = new ConnectionTimings();
+                    channel.attr(CONN_TIMINGS).set(t);
+                    channel.pipeline().addFirst("probe.connectTiming", new ConnectTimingHandler(t));
+                })
+                .doOnResolve((conn, addr) -> connTimings(conn).resolveStartNs = System.nanoTime())
+                .doAfterResolve((conn, addr) -> connTimings(conn).resolveEndNs = System.nanoTime())
+                .doOnRequest((req, conn) -> {
+                    // 풀 커넥션은 재사용되므로 타임아웃 핸들러는 요청마다 붙인다 (release 시 제거됨)
+                    conn.addHandlerLast(new ReadTimeoutHandler(READ_TIMEOUT_S, TimeUnit.SECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(WRITE_TIMEOUT_S, TimeUnit.SECONDS));
+                    ProbeTimings.from(req.currentContextView()).ifPresent(timings -> {
+                        // 수립 구간은 커넥션당 한 번만 (재사용 요청엔 null)
+                        ConnectionTimings ct = conn.channel().attr(CONN_TIMINGS).getAndSet(null);
+                        if (ct != null) timings.connectionEstablished(ct.dnsMs(), ct.connectMs(), ct.tlsMs());
+                        timings.requestStarted();
+                    });
+                })
+                .doOnResponse((resp, conn) ->
+                        ProbeTimings.from(resp.currentContextView()).ifPresent(ProbeTimings::responseStarted));
+
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(correlationAndLogging())
+                .build();
+    }
+
+    private static ConnectionTimings connTimings(Connection conn) {
+        ConnectionTimings t = conn.channel().attr(CONN_TIMINGS).get();
+        return t != null ? t : new ConnectionTimings(); // 이미 소비됐으면 버림
+    }
+
+    /** 커넥션 수립 구간 타임스탬프 (nanoTime, 0 이면 해당 구간 없음) */
+    private static final class ConnectionTimings {
+        volatile long resolveStartNs;
+        volatile long resolveEndNs;
+        volatile long connectStartNs;
+        volatile long connectEndNs;
+        volatile long tlsEndNs;
+
+        Integer dnsMs() {
+            return span(resolveStartNs, resolveEndNs);
+        }
+
+        Integer connectMs() {
+            return span(connectStartNs, connectEndNs);
+        }
+
+        Integer tlsMs() {
+            return span(connectEndNs, tlsEndNs);
+        }
+
+        private static Integer span(long startNs, long endNs) {
+            return startNs == 0 || endNs == 0 ? null : ProbeTimings.toMs(endNs - startNs);
+        }
+    }
+
+    /** TCP connect 시작/완료와 TLS 핸드셰이크 완료 시각을 기록 (outbound connect 는 파이프라인 위치와 무관하게 통과) */
+    private static final class ConnectTimingHandler extends ChannelOutboundHandlerAdapter {
+        private final ConnectionTimings timings;
+
+        ConnectTimingHandler(ConnectionTimings timings) {
+            this.timings = timings;
+        }
+
+        @Override
+        public void connect(ChannelHandlerContext ctx, SocketAddress remoteAddress,
+                            SocketAddress localAddress, ChannelPromise promise) throws Exception {
+            timings.connectStartNs = System.nanoTime();
+            promise.addListener(f -> {
+                if (!f.isSuccess()) return;
+                timings.connectEndNs = System.nanoTime();
+                SslHandler ssl = ctx.pipeline().get(SslHandler.class);
+                if (ssl != null) {
+                    ssl.handshakeFuture().addListener(h -> {
+                        if (h.isSuccess()) timings.tlsEndNs = System.nanoTime();
+                    });
+                }
+            });
+            super.connect(ctx, remoteAddress, localAddress, promise);
+        }
+    }
+
     /**
      * 하나의 필터에서:
      * 1) MDC corrId를 X-Correlation-Id 헤더로 전파
@@ -55,14 +261,14 @@ public class WebClientConfig {
         return (request, next) -> {
             long startNs = System.nanoTime();
 
-            // corrId 가져와서 헤더로 전파
-            String corrId = Optional.ofNullable(MDC.get(CorrelationIdFilter.MDC_KEY))
-                    .orElse(null);
+            // 호출부가 직접 넣은 corrId(프로브 등)가 있으면 우선, 없으면 MDC 값을 헤더로 전파
+            String corrId = Optional.ofNullable(request.headers().getFirst(CorrelationIdFilter.HDR))
+                    .orElse(MDC.get(CorrelationIdFilter.MDC_KEY));
 
             ClientRequest mutated = ClientRequest.from(request)
                     .headers(h -> {
                         if (corrId != null) {
-                            h.add(CorrelationIdFilter.HDR, corrId);
+                            h.set(CorrelationIdFilter.HDR, corrId);
                         }
                     })
                     .build();
@@ -1,18 +1,26 @@
 package com.doomole.uptime.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final StompEncodingInterceptor stompEncodingInterceptor;
+    private final WsOutboundQueues wsOutboundQueues;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")               // WS 엔드포인트
                 .setAllowedOriginPatterns("*")
+                .addInterceptors(stompEncodingInterceptor) // raw WS 여부 기록 (CBOR 협상용)
                 .withSockJS();                    // 필요 시 SockJS fallback
     }
 
@@ -23,4 +31,21 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // 서버 → 클라이언트로 브로드캐스트할 prefix
         registry.enableSimpleBroker("/topic", "/queue"); // 소규모: in-memory broker
     }
+
+    // 세션별 페이로드 인코딩 (CONNECT 협상, CBOR SEND 디코딩 / 나가는 프레임 CBOR 변환)
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompEncodingInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompEncodingInterceptor);
+    }
+
+    // 세션별 conflating outbound 큐 (느린 클라이언트 격리)
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.addDecoratorFactory(wsOutboundQueues);
+    }
 }
@@ -0,0 +1,127 @@
+package com.doomole.uptime.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 느린 클라이언트 보호: 모든 WS 세션을 ConflatingSession 으로 감싼다.
+ * clientOutboundChannel 스레드는 큐에 넣고 바로 돌아가고, 소켓 쓰기는 drainThreads 개의 전용 스레드가 한다.
+ * 전송 하나가 sendTimeLimitMs 를 넘기면 watchdog 이 그 세션을 닫는다.
+ * 그래서 느린 세션 하나 때문에 다른 세션 전송이 밀리거나 메모리가 무한히 늘지 않는다.
+ * 세션별 깊이/conflate/drop 은 /actuator/wssessions, 합계는 uptime.ws.outbound.*
+ */
+@Slf4j
+@Component
+public class WsOutboundQueues implements WebSocketHandlerDecoratorFactory {
+    private final ObjectMapper objectMapper;
+    private final CBORMapper cborMapper = new CBORMapper();
+    private final int chatBacklog;
+    private final int maxQueued;
+    private final long sendTimeLimitMs;
+    private final ExecutorService drainExecutor;
+    private final Map<String, ConflatingSession> sessions = new ConcurrentHashMap<>();
+    private final Counter conflatedCounter;
+    private final Counter droppedCounter;
+    private final Counter stalledCounter;
+
+    public WsOutboundQueues(ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${uptime.ws.outbound.chatBacklog:100}") int chatBacklog,
+                            @Value("${uptime.ws.outbound.maxQueued:1000}") int maxQueued,
+                            @Value("${uptime.ws.outbound.drainThreads:8}") int drainThreads,
+                            @Value("${uptime.ws.outbound.sendTimeLimitMs:10000}") long sendTimeLimitMs) {
+        this.objectMapper = objectMapper;
+        this.chatBacklog = chatBacklog;
+        this.maxQueued = maxQueued;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        AtomicInteger seq = new AtomicInteger();
+        this.drainExecutor = Executors.newFixedThreadPool(drainThreads, r -> {
+            Thread t = new Thread(r, "ws-outbound-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.conflatedCounter = meterRegistry.counter("uptime.ws.outbound.conflated");
+        this.droppedCounter = meterRegistry.counter("uptime.ws.outbound.dropped");
+        this.stalledCounter = meterRegistry.counter("uptime.ws.outbound.stalled");
+        meterRegistry.gauge("uptime.ws.outbound.sessions", sessions, Map::size);
+        meterRegistry.gauge("uptime.ws.outbound.queued", sessions,
+                s -> s.values().stream().mapToInt(ConflatingSession::depth).sum());
+        meterRegistry.gauge("uptime.ws.outbound.maxDepth", sessions,
+                s -> s.values().stream().mapToInt(ConflatingSession::depth).max().orElse(0));
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                ConflatingSession wrapped = new ConflatingSession(session, WsOutboundQueues.this,
+                        objectMapper, cborMapper, drainExecutor, chatBacklog, maxQueued, sendTimeLimitMs);
+                sessions.put(session.getId(), wrapped);
+                super.afterConnectionEstablished(wrapped);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                ConflatingSession wrapped = sessions.remove(session.getId());
+                if (wrapped != null) wrapped.clear();
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    // 전송 하나가 sendTimeLimit 을 넘긴 세션은 닫는다 (blocking 전송 세션이 drain 스레드를 붙잡지 않게)
+    @Scheduled(fixedDelayString = "${uptime.ws.outbound.watchdogMs:1000}")
+    public void closeStalled() {
+        long now = System.nanoTime();
+        for (ConflatingSession session : sessions.values()) {
+            long stalledMs = session.sendingForMs(now);
+            if (stalledMs <= sendTimeLimitMs) continue;
+            stalledCounter.increment();
+            log.warn("WS send stalled {}ms, closing session={}", stalledMs, session.getId());
+            session.abort();
+        }
+    }
+
+    /** 큐가 깊은 세션부터 */
+    public List<Map<String, Object>> status() {
+        return sessions.values().stream()
+                .sorted(Comparator.comparingInt(ConflatingSession::depth).reversed())
+                .map(ConflatingSession::status)
+                .toList();
+    }
+
+    void conflated() {
+        conflatedCounter.increment();
+    }
+
+    void dropped() {
+        droppedCounter.increment();
+    }
+
+    @PreDestroy
+    void stop() {
+        drainExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,29 @@
+package com.doomole.uptime.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/wssessions : 세션별 outbound 큐 깊이/conflate/drop, 소켓 쓰기 정체 시간.
+ * depth 가 계속 높거나 sendingForMs 가 큰 세션이 느린 클라이언트다.
+ */
+@Component
+@Endpoint(id = "wssessions")
+@RequiredArgsConstructor
+public class WsSessionsEndpoint {
+    private final WsOutboundQueues wsOutboundQueues;
+
+    @ReadOperation
+    public Map<String, Object> sessions() {
+        List<Map<String, Object>> list = wsOutboundQueues.status();
+        return Map.of(
+                "sessions", list.size(),
+                "entries", list
+        );
+    }
+}
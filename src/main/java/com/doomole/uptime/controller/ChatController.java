@@ -2,6 +2,8 @@ package com.doomole.uptime.controller;
 
 import com.doomole.uptime.dto.ChatMessage;
 import com.doomole.uptime.service.ChatHistoryService;
+import com.doomole.uptime.service.WsFanout;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -17,6 +19,13 @@ import java.util.List;
 public class ChatController {
     private final SimpMessagingTemplate messagingTemplate;
     private final ChatHistoryService chatHistoryService;
+    private final WsFanout fanout;
+
+    // 다른 노드에 붙은 사용자가 보낸 메시지도 이 노드의 방 구독자에게 전달
+    @PostConstruct
+    void subscribePeers() {
+        fanout.subscribe("chat", ChatMessage.class, this::broadcastLocal);
+    }
 
     // 클라이언트가 /app/chat.send 로 보낸 메시지를 특정 방으로 브로드캐스트
     @MessageMapping("/chat.send")
@@ -25,7 +34,12 @@ public class ChatController {
             message.setTimestamp(System.currentTimeMillis());
         }
         chatHistoryService.append(message); // ✅ 저장
-        messagingTemplate.convertAndSend("/topic/rooms/" + message.getRoomId(), message); // ✅ 브로드캐스트
+        broadcastLocal(message); // ✅ 브로드캐스트
+        fanout.send("chat", message);
+    }
+
+    private void broadcastLocal(ChatMessage message) {
+        messagingTemplate.convertAndSend("/topic/rooms/" + message.getRoomId(), message);
     }
     // 초기 히스토리(최신 n개) 조회
     @GetMapping("/api/chat/history")
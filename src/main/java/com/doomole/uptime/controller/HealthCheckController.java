@@ -1,15 +1,28 @@
 package com.doomole.uptime.controller;
 
+import com.doomole.uptime.dto.DashboardResponse;
 import com.doomole.uptime.dto.HealthCheckRequest;
 import com.doomole.uptime.dto.HealthCheckResponse;
 import com.doomole.uptime.dto.HealthCheckResultResponse;
 import com.doomole.uptime.dto.HealthCheckSummaryResponse;
+import com.doomole.uptime.dto.IncidentResponse;
+import com.doomole.uptime.dto.LatencyPercentileResponse;
+import com.doomole.uptime.dto.LiveStatsResponse;
+import com.doomole.uptime.dto.ReliabilityResponse;
+import com.doomole.uptime.dto.ResultPageResponse;
+import com.doomole.uptime.service.DashboardService;
 import com.doomole.uptime.service.HealthCheckService;
+import com.doomole.uptime.service.ResultExporter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,6 +30,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class HealthCheckController {
     private final HealthCheckService healthCheckService;
+    private final ResultExporter resultExporter;
+    private final DashboardService dashboardService;
 
     @PostMapping
     public ResponseEntity<HealthCheckResponse> addHealthCheck(@Valid @RequestBody HealthCheckRequest request) {
@@ -32,6 +47,25 @@ public class HealthCheckController {
         return ResponseEntity.ok(list);
     }
 
+    // 목록 + 최신 상태 + 1h/24h 가동률을 한 번에 (모니터별 summary/result N+1 호출 대체)
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardResponse> getDashboard() {
+        return ResponseEntity.ok(dashboardService.get());
+    }
+
+    // 전체 모니터 합산 MTTR/MTBF
+    @GetMapping("/reliability")
+    public ResponseEntity<ReliabilityResponse> getFleetReliability(
+            @RequestParam(name = "window", defaultValue = "30d") String window
+    ) {
+        return ResponseEntity.ok(healthCheckService.getReliability(null, window));
+    }
+
+    @GetMapping("/live")
+    public ResponseEntity<List<LiveStatsResponse>> getLiveStats() {
+        return ResponseEntity.ok(healthCheckService.getLiveStats());
+    }
+
     @GetMapping("/{id}/result")
     public ResponseEntity<List<HealthCheckResultResponse>> getHealthCheckResultRecent(
             @PathVariable("id") Long id,
@@ -42,6 +76,35 @@ public class HealthCheckController {
         return ResponseEntity.ok(list);
     }
 
+    @GetMapping("/{id}/results")
+    public ResponseEntity<ResultPageResponse> getHealthCheckResultPage(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(healthCheckService.getHealthCheckResultPage(id, cursor, limit));
+    }
+
+    // 응답 본문에 바로 흘려 쓴다 (HttpLoggingFilter 도 본문을 캐싱하지 않도록 /export 는 건너뜀)
+    @GetMapping("/{id}/results/export")
+    public ResponseEntity<StreamingResponseBody> exportResults(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        ResultExporter.Format fmt = resultExporter.parseFormat(format);
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        LocalDateTime start = from == null ? end.minusDays(1) : from;
+        StreamingResponseBody body = out -> resultExporter.export(id, fmt, start, end, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fmt.contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"results-" + id + "." + fmt.extension + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{id}/summary")
     public ResponseEntity<HealthCheckSummaryResponse> getHealthCheckSummary(
             @PathVariable("id") Long id,
@@ -50,6 +113,30 @@ public class HealthCheckController {
         return ResponseEntity.ok(healthCheckService.getHealthCheckSummary(id, window));
     }
 
+    @GetMapping("/{id}/latency")
+    public ResponseEntity<LatencyPercentileResponse> getLatencyPercentiles(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "window", defaultValue = "24h") String window
+    ) {
+        return ResponseEntity.ok(healthCheckService.getLatencyPercentiles(id, window));
+    }
+
+    @GetMapping("/{id}/incidents")
+    public ResponseEntity<List<IncidentResponse>> getIncidents(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "limit", defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(healthCheckService.getIncidents(id, limit));
+    }
+
+    @GetMapping("/{id}/reliability")
+    public ResponseEntity<ReliabilityResponse> getReliability(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "window", defaultValue = "30d") String window
+    ) {
+        return ResponseEntity.ok(healthCheckService.getReliability(id, window));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<HealthCheckResponse> update(
             @PathVariable Long id, @RequestBody HealthCheckRequest request) {
@@ -0,0 +1,19 @@
+package com.doomole.uptime.controller;
+
+import com.doomole.uptime.dto.HealthSnapshot;
+import com.doomole.uptime.service.HealthEventBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+@Controller
+@RequiredArgsConstructor
+public class HealthStreamController {
+    private final HealthEventBroadcaster healthEventBroadcaster;
+
+    // /app/health 구독 → 구독한 세션에만 스냅샷 1회 (브로커를 거치지 않음). 다시 구독하면 resync
+    @SubscribeMapping("/health")
+    public HealthSnapshot snapshot() {
+        return healthEventBroadcaster.snapshot();
+    }
+}
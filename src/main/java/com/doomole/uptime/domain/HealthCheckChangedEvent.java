@@ -0,0 +1,20 @@
+package com.doomole.uptime.domain;
+
+/**
+ * 헬스체크 등록/수정/삭제 알림 (레지스트리/스케줄러 등 인메모리 상태 갱신용).
+ * monitor 가 null 이면 삭제. remote 는 다른 노드에서 전파된 변경(재전파 금지).
+ */
+public record HealthCheckChangedEvent(Long healthCheckId, MonitorDescriptor monitor, boolean remote) {
+
+    public static HealthCheckChangedEvent saved(MonitorDescriptor monitor) {
+        return new HealthCheckChangedEvent(monitor.id(), monitor, false);
+    }
+
+    public static HealthCheckChangedEvent deleted(Long healthCheckId) {
+        return new HealthCheckChangedEvent(healthCheckId, null, false);
+    }
+
+    public boolean isDeleted() {
+        return monitor == null;
+    }
+}
@@ -0,0 +1,151 @@
+package com.doomole.uptime.domain;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 로그 버킷 지연 히스토그램 (HdrHistogram 과 같은 log-linear 구조, 유효숫자 약 1/16 = 6% 오차).
+ * 0~15ms 는 1ms 단위, 그 이상은 2의 거듭제곱 구간마다 16칸. 칸별 카운트라 서로 더하기만 하면 병합된다.
+ * 저장은 비어있지 않은 칸만 (칸 번호 차이, 카운트) varint 쌍으로 직렬화해 수십 바이트 수준.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;   // 16
+    private static final int MAX_SHIFT = 16;                 // 상한 약 2^20ms(17분), 넘으면 마지막 칸
+    public static final int BUCKETS = SUB_BUCKETS + (MAX_SHIFT + 1) * SUB_BUCKETS;
+    private static final byte FORMAT_VERSION = 1;
+
+    private long[] counts; // 기록 전엔 할당하지 않음
+    private long total;
+    private int max = -1;
+
+    public void record(int latencyMs) {
+        int v = Math.max(0, latencyMs);
+        if (counts == null) counts = new long[BUCKETS];
+        counts[indexOf(v)]++;
+        total++;
+        max = Math.max(max, v);
+    }
+
+    public void merge(LatencyHistogram other) {
+        if (other == null || other.total == 0) return;
+        if (counts == null) counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    public long count() {
+        return total;
+    }
+
+    /** 기록된 최대값 (정확값). 직렬화 후 복원한 경우엔 최대 칸의 상한 */
+    public Integer max() {
+        return total == 0 ? null : max;
+    }
+
+    /**
+     * q 분위수 (0 < q <= 1). 해당 칸의 상한값으로 답하되 관측 최대값을 넘지 않는다.
+     */
+    public Integer percentile(double q) {
+        if (total == 0) return null;
+        long rank = LatencyPercentiles.rank(q, total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    /** p50/p90/p95/p99 (한 번 훑음) */
+    public LatencyPercentiles percentiles() {
+        return LatencyPercentiles.of(counts, total, max());
+    }
+
+    /** 비어있지 않은 칸만 (칸 번호, 카운트) 순서대로 */
+    public void forEachBucket(BucketConsumer consumer) {
+        if (counts == null) return;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) consumer.accept(i, counts[i]);
+        }
+    }
+
+    /** 값이 들어갈 칸 번호 (칸별 카운트를 직접 들고 있는 쪽에서 사용) */
+    public static int bucketOf(int latencyMs) {
+        return indexOf(Math.max(0, latencyMs));
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        out.write(FORMAT_VERSION);
+        if (counts != null) {
+            int prev = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (counts[i] == 0) continue;
+                writeVarint(out, i - prev);
+                writeVarint(out, counts[i]);
+                prev = i;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static LatencyHistogram fromBytes(byte[] bytes) {
+        LatencyHistogram h = new LatencyHistogram();
+        if (bytes == null || bytes.length <= 1 || bytes[0] != FORMAT_VERSION) return h;
+        ByteBuffer in = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        h.counts = new long[BUCKETS];
+        int idx = 0;
+        while (in.hasRemaining()) {
+            idx += (int) readVarint(in);
+            long c = readVarint(in);
+            if (idx >= BUCKETS) break; // 손상된 값 방어
+            h.counts[idx] += c;
+            h.total += c;
+            h.max = Math.max(h.max, upperBound(idx));
+        }
+        return h;
+    }
+
+    @FunctionalInterface
+    public interface BucketConsumer {
+        void accept(int index, long count);
+    }
+
+    static int indexOf(int v) {
+        if (v < SUB_BUCKETS) return v;
+        int shift = (31 - Integer.numberOfLeadingZeros(v)) - SUB_BITS;
+        if (shift > MAX_SHIFT) return BUCKETS - 1;
+        int sub = (v >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    // 칸에 들어갈 수 있는 최대값
+    static int upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long v = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0 && shift < 64);
+        return v;
+    }
+}
@@ -0,0 +1,39 @@
+package com.doomole.uptime.domain;
+
+/**
+ * p50/p90/p95/p99 지연 (ms). LatencyHistogram 칸별 카운트를 한 번 훑어 구한다.
+ */
+public record LatencyPercentiles(
+        Integer p50,
+        Integer p90,
+        Integer p95,
+        Integer p99
+) {
+    public static final LatencyPercentiles EMPTY = new LatencyPercentiles(null, null, null, null);
+    private static final double[] QS = {0.50, 0.90, 0.95, 0.99};
+
+    /**
+     * @param counts LatencyHistogram 칸 번호로 된 카운트 배열
+     * @param total  counts 합
+     * @param cap    관측 최대값 (칸 상한이 이를 넘지 않게), null 이면 제한 없음
+     */
+    public static LatencyPercentiles of(long[] counts, long total, Integer cap) {
+        if (counts == null || total <= 0) return EMPTY;
+        Integer[] out = new Integer[QS.length];
+        int q = 0;
+        long seen = 0;
+        for (int i = 0; i < counts.length && q < QS.length; i++) {
+            seen += counts[i];
+            while (q < QS.length && seen >= rank(QS[q], total)) {
+                int v = LatencyHistogram.upperBound(i);
+                out[q++] = cap == null ? v : Math.min(v, cap);
+            }
+        }
+        while (q < QS.length) out[q++] = cap;
+        return new LatencyPercentiles(out[0], out[1], out[2], out[3]);
+    }
+
+    static long rank(double q, long total) {
+        return Math.max(1, (long) Math.ceil(q * total));
+    }
+}
@@ -0,0 +1,31 @@
+package com.doomole.uptime.domain;
+
+import com.doomole.uptime.entity.HealthCheck;
+
+/**
+ * 스케줄러/프로브 hot path 에서 쓰는 불변 모니터 정의.
+ * JPA 엔티티 대신 이 값만 메모리에 들고 다닌다.
+ */
+public record MonitorDescriptor(
+        Long id,
+        String name,
+        CheckType type,
+        String url,
+        int intervalSeconds,
+        int thresholdN,
+        int windowM,
+        boolean enabled
+) {
+    public static MonitorDescriptor from(HealthCheck healthCheck) {
+        return new MonitorDescriptor(
+                healthCheck.getId(),
+                healthCheck.getName(),
+                healthCheck.getType(),
+                healthCheck.getUrl(),
+                healthCheck.getIntervalSeconds(),
+                healthCheck.getThresholdN(),
+                healthCheck.getWindowM(),
+                healthCheck.isEnabled()
+        );
+    }
+}
@@ -0,0 +1,66 @@
+package com.doomole.uptime.domain;
+
+import reactor.util.context.ContextView;
+
+import java.util.Optional;
+
+/**
+ * 프로브 1건의 구간별 소요시간 수집기.
+ * ProbeEngine 이 Reactor Context 에 넣고, probeWebClient 의 reactor-netty 훅(doOnRequest/doOnResponse)이 채운다.
+ * DNS/connect/TLS 는 이번 요청이 새 커넥션을 맺었을 때만 값이 있고, keep-alive 재사용이면 null 이다.
+ */
+public final class ProbeTimings {
+    public static final String CONTEXT_KEY = ProbeTimings.class.getName();
+
+    private volatile Integer dnsMs;
+    private volatile Integer connectMs;
+    private volatile Integer tlsMs;
+    private volatile long requestStartNs;
+    private volatile long responseStartNs;
+
+    public static Optional<ProbeTimings> from(ContextView ctx) {
+        return ctx.getOrEmpty(CONTEXT_KEY);
+    }
+
+    /** 새 커넥션의 수립 구간 (없는 구간은 null) */
+    public void connectionEstablished(Integer dnsMs, Integer connectMs, Integer tlsMs) {
+        this.dnsMs = dnsMs;
+        this.connectMs = connectMs;
+        this.tlsMs = tlsMs;
+    }
+
+    public void requestStarted() {
+        requestStartNs = System.nanoTime();
+    }
+
+    public void responseStarted() {
+        responseStartNs = System.nanoTime();
+    }
+
+    public Integer dnsMs() {
+        return dnsMs;
+    }
+
+    public Integer connectMs() {
+        return connectMs;
+    }
+
+    public Integer tlsMs() {
+        return tlsMs;
+    }
+
+    /** 요청 송신 시작 → 응답 헤더 수신 */
+    public Integer ttfbMs() {
+        if (requestStartNs == 0 || responseStartNs == 0) return null;
+        return toMs(responseStartNs - requestStartNs);
+    }
+
+    /** 요청이 실제로 나간 시각 (0 이면 커넥션 확보 전에 끝남) */
+    public long requestStartNs() {
+        return requestStartNs;
+    }
+
+    public static Integer toMs(long nanos) {
+        return (int) (nanos / 1_000_000);
+    }
+}
@@ -0,0 +1,31 @@
+package com.doomole.uptime.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 결과 keyset 페이지 커서: (observed_at, id) 보다 오래된 행부터 이어서 읽는다.
+ * id 가 null 이면 아카이브 구간(행 id 없음)으로, observedAt 보다 이전만 본다.
+ * 클라이언트에는 불투명한 base64url 문자열로 준다.
+ */
+public record ResultCursor(LocalDateTime observedAt, Long id) {
+
+    public String encode() {
+        String raw = observedAt + "|" + (id == null ? "" : id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @throws IllegalArgumentException 형식이 맞지 않으면 */
+    public static ResultCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int sep = raw.indexOf('|');
+        if (sep < 0) throw new IllegalArgumentException("cursor");
+        try {
+            String id = raw.substring(sep + 1);
+            return new ResultCursor(LocalDateTime.parse(raw.substring(0, sep)), id.isEmpty() ? null : Long.valueOf(id));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("cursor", e);
+        }
+    }
+}
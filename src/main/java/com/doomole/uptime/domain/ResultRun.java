@@ -0,0 +1,109 @@
+package com.doomole.uptime.domain;
+
+import com.doomole.uptime.dto.ProbeResult;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 같은 상태/HTTP 코드/오류가 이어진 결과 묶음(run). 개별 지연 대신 합계/최소/최대만 남긴다.
+ * 새 run 은 바로 저장하고, 늘어난 부분은 flush 주기마다 또는 run 이 닫힐 때 저장한다.
+ */
+@Getter
+public class ResultRun {
+    private final Long healthCheckId;
+    private final LocalDateTime startedAt;
+    private final HealthStatus status;
+    private final Integer httpCode;
+    private final String error;
+    private LocalDateTime endedAt;
+    private int count;
+    private int latencyCount;
+    private long latencySum;
+    private Integer latencyMin;
+    private Integer latencyMax;
+
+    @Getter(AccessLevel.NONE)
+    private boolean persisted;
+    private boolean dirty;            // 마지막 저장 이후 늘어남
+    @Getter(AccessLevel.NONE)
+    private long persistedAtMs;
+
+    public ResultRun(Long healthCheckId, LocalDateTime startedAt, LocalDateTime endedAt, HealthStatus status,
+                     Integer httpCode, String error, int count, int latencyCount, long latencySum,
+                     Integer latencyMin, Integer latencyMax) {
+        this.healthCheckId = healthCheckId;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+        this.status = status;
+        this.httpCode = httpCode;
+        this.error = error;
+        this.count = count;
+        this.latencyCount = latencyCount;
+        this.latencySum = latencySum;
+        this.latencyMin = latencyMin;
+        this.latencyMax = latencyMax;
+    }
+
+    public static ResultRun open(ProbeResult r) {
+        ResultRun run = new ResultRun(r.healthCheckId(), r.observedAt(), r.observedAt(), r.status(),
+                r.httpCode(), r.error(), 0, 0, 0, null, null);
+        run.addLatency(r.latencyMs());
+        run.count = 1;
+        run.dirty = true;
+        return run;
+    }
+
+    /** 저장소에서 다시 읽은 run (이미 저장됨) */
+    public ResultRun loaded() {
+        markPersisted(System.currentTimeMillis());
+        return this;
+    }
+
+    /**
+     * 이 run 을 이어갈 수 있는지: 상태/코드/오류가 같고, 간격이 maxGap 이내이고,
+     * 지연이 run 평균에서 max(shiftMs, 평균 x shiftRatio) 넘게 벗어나지 않을 때.
+     */
+    public boolean accepts(ProbeResult r, Duration maxGap, int shiftMs, double shiftRatio) {
+        if (r.status() != status || !Objects.equals(r.httpCode(), httpCode) || !Objects.equals(r.error(), error)) {
+            return false;
+        }
+        if (Duration.between(endedAt, r.observedAt()).compareTo(maxGap) > 0) return false;
+        Double avg = avgLatencyMs();
+        if (avg == null || r.latencyMs() == null) return true;
+        return Math.abs(r.latencyMs() - avg) <= Math.max(shiftMs, avg * shiftRatio);
+    }
+
+    public void extend(ProbeResult r) {
+        endedAt = r.observedAt();
+        count++;
+        addLatency(r.latencyMs());
+        dirty = true;
+    }
+
+    /** 아직 저장된 적 없거나, 늘어난 뒤 flushMs 가 지났으면 저장 대상 */
+    public boolean needsWrite(long nowMs, long flushMs) {
+        return dirty && (!persisted || nowMs - persistedAtMs >= flushMs);
+    }
+
+    public void markPersisted(long nowMs) {
+        persisted = true;
+        dirty = false;
+        persistedAtMs = nowMs;
+    }
+
+    public Double avgLatencyMs() {
+        return latencyCount == 0 ? null : (double) latencySum / latencyCount;
+    }
+
+    private void addLatency(Integer latency) {
+        if (latency == null) return;
+        latencyCount++;
+        latencySum += latency;
+        latencyMin = latencyMin == null ? latency : Math.min(latencyMin, latency);
+        latencyMax = latencyMax == null ? latency : Math.max(latencyMax, latency);
+    }
+}
@@ -0,0 +1,69 @@
+package com.doomole.uptime.domain;
+
+import com.doomole.uptime.dto.ProbeResult;
+import lombok.Getter;
+
+/**
+ * 롤업 한 칸(또는 여러 칸 합계)의 집계값. 모든 필드가 더하기/최소/최대라 순서와 무관하게 합칠 수 있다.
+ * 지연 히스토그램은 LATENCY_BOUNDS_MS 상한(이하) 기준 고정 버킷 + 마지막 overflow 버킷,
+ * 분위수용으로는 LatencyHistogram(로그 버킷)을 함께 쌓는다.
+ */
+@Getter
+public class RollupTotals {
+    public static final int[] LATENCY_BOUNDS_MS = {50, 100, 250, 500, 1000, 2500, 5000, 10000};
+    public static final int HIST_BUCKETS = LATENCY_BOUNDS_MS.length + 1;
+
+    private long total;
+    private long up;
+    private long latencyCount;
+    private long latencySum;
+    private Integer latencyMin;
+    private Integer latencyMax;
+    private final long[] hist = new long[HIST_BUCKETS];
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    public void add(ProbeResult r) {
+        total++;
+        if (r.status() == HealthStatus.UP) up++;
+        Integer latency = r.latencyMs();
+        if (latency == null) return;
+        latencyCount++;
+        latencySum += latency;
+        latencyMin = latencyMin == null ? latency : Math.min(latencyMin, latency);
+        latencyMax = latencyMax == null ? latency : Math.max(latencyMax, latency);
+        hist[bucketOf(latency)]++;
+        histogram.record(latency);
+    }
+
+    /** 저장된 합계를 그대로 더한다 (min/max 는 null 이면 해당 칸에 지연값이 없었던 것) */
+    public void merge(long total, long up, long latencyCount, long latencySum,
+                      Integer latencyMin, Integer latencyMax, long[] hist) {
+        this.total += total;
+        this.up += up;
+        this.latencyCount += latencyCount;
+        this.latencySum += latencySum;
+        if (latencyMin != null) this.latencyMin = this.latencyMin == null ? latencyMin : Math.min(this.latencyMin, latencyMin);
+        if (latencyMax != null) this.latencyMax = this.latencyMax == null ? latencyMax : Math.max(this.latencyMax, latencyMax);
+        for (int i = 0; i < HIST_BUCKETS; i++) this.hist[i] += hist[i];
+    }
+
+    public void merge(RollupTotals o) {
+        merge(o.total, o.up, o.latencyCount, o.latencySum, o.latencyMin, o.latencyMax, o.hist);
+        histogram.merge(o.histogram);
+    }
+
+    public Double avgLatencyMs() {
+        return latencyCount == 0 ? null : (double) latencySum / latencyCount;
+    }
+
+    public double uptimePercent() {
+        return total == 0 ? 0.0 : up * 100.0 / total;
+    }
+
+    public static int bucketOf(int latencyMs) {
+        for (int i = 0; i < LATENCY_BOUNDS_MS.length; i++) {
+            if (latencyMs <= LATENCY_BOUNDS_MS[i]) return i;
+        }
+        return LATENCY_BOUNDS_MS.length;
+    }
+}
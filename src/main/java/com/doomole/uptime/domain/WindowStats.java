@@ -0,0 +1,23 @@
+package com.doomole.uptime.domain;
+
+/**
+ * 슬라이딩 window 한 개의 집계 스냅샷 (불변).
+ */
+public record WindowStats(
+        long checks,
+        long up,
+        long latencyCount,
+        long latencySum,
+        Integer latencyMin,
+        Integer latencyMax
+) {
+    public static final WindowStats EMPTY = new WindowStats(0, 0, 0, 0, null, null);
+
+    public double uptimePercent() {
+        return checks == 0 ? 0.0 : up * 100.0 / checks;
+    }
+
+    public Double avgLatencyMs() {
+        return latencyCount == 0 ? null : (double) latencySum / latencyCount;
+    }
+}
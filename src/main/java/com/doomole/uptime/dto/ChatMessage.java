@@ -1,10 +1,14 @@
 package com.doomole.uptime.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor // 노드 간 fan-out 수신 시 역직렬화용
 public class ChatMessage {
     private String roomId;
     private String sender;
@@ -0,0 +1,20 @@
+package com.doomole.uptime.dto;
+
+import java.time.LocalDateTime;
+
+public record DashboardMonitorResponse(
+        Long id,
+        String name,
+        String type,
+        String url,
+        int intervalSeconds,
+        boolean enabled,
+        String status,
+        LocalDateTime lastCheckedAt,
+        Integer lastLatencyMs,
+        Integer lastHttpCode,
+        double uptimePercent1h,
+        double uptimePercent24h,
+        Double avgLatencyMs24h
+) {
+}
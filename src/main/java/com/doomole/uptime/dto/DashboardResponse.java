@@ -0,0 +1,10 @@
+package com.doomole.uptime.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record DashboardResponse(
+        LocalDateTime generatedAt,
+        List<DashboardMonitorResponse> monitors
+) {
+}
@@ -1,15 +1,23 @@
 package com.doomole.uptime.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor // 노드 간 fan-out 수신 시 역직렬화용
 public class HealthCheckEvent {
     private Long healthCheckId;
     private String status;     // "UP" | "DOWN" | "UNKNOWN"
     private Integer httpCode;  // nullable
     private Integer latencyMs; // nullable
     private String error;      // nullable
+    private Integer dnsMs;     // nullable
+    private Integer connectMs; // nullable
+    private Integer tlsMs;     // nullable
+    private Integer ttfbMs;    // nullable
     private long observedAt;   // epoch millis
 }
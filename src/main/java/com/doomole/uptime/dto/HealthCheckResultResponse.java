@@ -10,6 +10,10 @@ public record HealthCheckResultResponse(
         HealthStatus status,
         Integer httpCode,
         Integer latencyMs,
-        String errorMessage
+        String errorMessage,
+        Integer dnsMs,
+        Integer connectMs,
+        Integer tlsMs,
+        Integer ttfbMs
 ) {
 }
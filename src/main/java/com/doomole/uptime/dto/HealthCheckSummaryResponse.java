@@ -6,6 +6,13 @@ public record HealthCheckSummaryResponse(
         double uptimePercent,
         Double avgLatencyMs,
         String latestStatus,
-        Integer latestHttpCode
+        Integer latestHttpCode,
+        long totalChecks,
+        Integer minLatencyMs,
+        Integer maxLatencyMs,
+        Integer p50LatencyMs,
+        Integer p90LatencyMs,
+        Integer p95LatencyMs,
+        Integer p99LatencyMs
 ) {
 }
@@ -0,0 +1,32 @@
+package com.doomole.uptime.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * /topic/health 집계 프레임: 한 tick(기본 250ms) 동안 나온 이벤트를 모니터별 최신 1건으로 묶는다.
+ * 대시보드용이라 상태/코드/지연/오류만 담고 null 필드는 생략한다 (구간별 timing 은 /topic/health/{id}).
+ * seq 는 노드(=WS 연결)별로 1씩 증가한다. 끊겼다 붙으면 다른 노드일 수 있으니 항상 스냅샷부터 다시 받는다.
+ * 느린 세션에 밀린 프레임은 전송 직전에 하나로 합쳐지며 이때 fromSeq(합친 범위의 시작)가 추가된다 (ConflatingSession).
+ */
+public record HealthEventBatch(
+        long seq,
+        long sentAt,               // epoch millis
+        List<Item> events
+) {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Item(
+            long healthCheckId,
+            String status,
+            Integer httpCode,
+            Integer latencyMs,
+            String error,
+            long observedAt
+    ) {
+        public static Item from(HealthCheckEvent e) {
+            return new Item(e.getHealthCheckId(), e.getStatus(), e.getHttpCode(), e.getLatencyMs(), e.getError(),
+                    e.getObservedAt());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.doomole.uptime.dto;
+
+import java.util.List;
+
+/**
+ * /app/health 구독 시 1회 내려주는 전체 모니터 현재 상태.
+ * seq 는 이 스냅샷에 이미 반영된 마지막 /topic/health 프레임 번호다.
+ * 클라이언트는 seq 이하 프레임은 버리고, 이후 프레임 seq 가 1씩 이어지지 않으면 다시 구독해서 스냅샷을 받는다.
+ */
+public record HealthSnapshot(
+        long seq,
+        long sentAt,               // epoch millis
+        List<HealthEventBatch.Item> monitors
+) {
+}
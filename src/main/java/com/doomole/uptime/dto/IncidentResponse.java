@@ -0,0 +1,14 @@
+package com.doomole.uptime.dto;
+
+import java.time.LocalDateTime;
+
+public record IncidentResponse(
+        Long id,
+        Long healthCheckId,
+        LocalDateTime startedAt,
+        LocalDateTime endedAt,     // null 이면 진행 중
+        Long durationMs,
+        String firstError,
+        Integer firstHttpCode
+) {
+}
@@ -0,0 +1,13 @@
+package com.doomole.uptime.dto;
+
+public record LatencyPercentileResponse(
+        Long healthCheckId,
+        String window,
+        long count,
+        Integer p50Ms,
+        Integer p90Ms,
+        Integer p95Ms,
+        Integer p99Ms,
+        Integer maxMs
+) {
+}
@@ -0,0 +1,12 @@
+package com.doomole.uptime.dto;
+
+public record LiveStatsResponse(
+        Long healthCheckId,
+        double uptimePercent1h,
+        Double avgLatencyMs1h,
+        long checks1h,
+        double uptimePercent24h,
+        Double avgLatencyMs24h,
+        long checks24h
+) {
+}
@@ -0,0 +1,36 @@
+package com.doomole.uptime.dto;
+
+import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.domain.ProbeTimings;
+
+import java.time.LocalDateTime;
+
+public record ProbeResult(
+        Long healthCheckId,
+        LocalDateTime observedAt,
+        HealthStatus status,
+        Integer httpCode,   // nullable (응답 없음)
+        Integer latencyMs,
+        String error,       // nullable
+        Integer dnsMs,      // nullable (커넥션 재사용/IP 직접 지정)
+        Integer connectMs,  // nullable (커넥션 재사용)
+        Integer tlsMs,      // nullable (커넥션 재사용/평문 HTTP)
+        Integer ttfbMs      // nullable (응답 헤더 전 실패)
+) {
+    public static ProbeResult of(Long healthCheckId, LocalDateTime observedAt, int httpCode, int latencyMs,
+                                 String error, ProbeTimings timings) {
+        boolean up = error == null && httpCode >= 200 && httpCode < 400;
+        return new ProbeResult(
+                healthCheckId,
+                observedAt,
+                up ? HealthStatus.UP : HealthStatus.DOWN,
+                httpCode == 0 ? null : httpCode,
+                latencyMs,
+                error,
+                timings.dnsMs(),
+                timings.connectMs(),
+                timings.tlsMs(),
+                timings.ttfbMs()
+        );
+    }
+}
@@ -0,0 +1,12 @@
+package com.doomole.uptime.dto;
+
+public record ReliabilityResponse(
+        Long healthCheckId,        // null 이면 전체 모니터 합산
+        String window,
+        long incidents,
+        long downtimeMs,
+        double availabilityPercent,
+        Long mttrMs,               // 평균 복구 시간 (window 안에서 끝난 incident 기준)
+        Long mtbfMs                // 평균 장애 간격 = 정상 가동 시간 / incident 수
+) {
+}
@@ -0,0 +1,10 @@
+package com.doomole.uptime.dto;
+
+import java.util.List;
+
+/** keyset 페이지. nextCursor 가 null 이면 마지막 페이지 */
+public record ResultPageResponse(
+        List<HealthCheckResultResponse> items,
+        String nextCursor
+) {
+}
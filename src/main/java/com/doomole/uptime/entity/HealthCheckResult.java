@@ -39,4 +39,17 @@ public class HealthCheckResult {
 
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
+
+    // 구간별 소요시간 (커넥션 재사용 시 dns/connect/tls 는 null)
+    @Column(name = "dns_ms")
+    private Integer dnsMs;
+
+    @Column(name = "connect_ms")
+    private Integer connectMs;
+
+    @Column(name = "tls_ms")
+    private Integer tlsMs;
+
+    @Column(name = "ttfb_ms")
+    private Integer ttfbMs;
 }
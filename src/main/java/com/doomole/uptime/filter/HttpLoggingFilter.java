@@ -107,6 +107,7 @@ public class HttpLoggingFilter extends OncePerRequestFilter {
     }
 
     private boolean shouldSkip(String uri) {
+        if (uri.endsWith("/export")) return true; // 스트리밍 응답은 본문 캐싱 금지
         for (String p : SKIP_PREFIXES) {
             if (uri.startsWith(p)) return true;
         }
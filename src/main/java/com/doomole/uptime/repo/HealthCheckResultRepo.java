@@ -2,6 +2,7 @@ package com.doomole.uptime.repo;
 
 import com.doomole.uptime.domain.HealthStatus;
 import com.doomole.uptime.entity.HealthCheckResult;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
@@ -12,13 +13,24 @@ public interface HealthCheckResultRepo extends JpaRepository<HealthCheckResult,
 
     List<HealthCheckResult> findByHealthCheck_IdOrderByObservedAtDesc(Long healthCheckId, Pageable pageable);
 
+    List<HealthCheckResult> findByHealthCheck_IdAndObservedAtGreaterThanEqualOrderByObservedAtDesc(
+            Long healthCheckId, LocalDateTime from, Pageable pageable
+    );
+
+    /**
+     * 최근 limit 건. 먼저 최근 하루만 조회해 파티션 1~2개로 끝내고, 모자랄 때(주기가 긴 모니터)만 전체로 넓힌다.
+     */
+    default List<HealthCheckResult> findRecent(Long healthCheckId, int limit) {
+        Pageable page = PageRequest.of(0, limit);
+        List<HealthCheckResult> recent = findByHealthCheck_IdAndObservedAtGreaterThanEqualOrderByObservedAtDesc(
+                healthCheckId, LocalDateTime.now().minusDays(1), page);
+        if (recent.size() >= limit) return recent;
+        return findByHealthCheck_IdOrderByObservedAtDesc(healthCheckId, page);
+    }
+
     long countByHealthCheck_IdAndObservedAtGreaterThanEqual(Long healthCheckId, LocalDateTime from);
 
     long countByHealthCheck_IdAndHealthStatusAndObservedAtGreaterThanEqual(
             Long healthCheckId, HealthStatus status, LocalDateTime from
     );
-
-    HealthCheckResult findTop1ByHealthCheck_IdOrderByObservedAtDesc(Long healthCheckId);
-
-    long deleteByObservedAtBefore(LocalDateTime cutoff);
 }
@@ -0,0 +1,80 @@
+package com.doomole.uptime.repo;
+
+import com.doomole.uptime.dto.IncidentResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * incident 테이블 (모니터별 장애 구간). 결과 행과 달리 전이 때만 쓰이므로 작고, 통계는 여기서만 계산한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IncidentRepo {
+    private static final String COLUMNS =
+            "id, health_check_id, started_at, ended_at, duration_ms, first_error, first_http_code";
+
+    private static final RowMapper<IncidentResponse> ROW = (rs, i) -> {
+        Timestamp ended = rs.getTimestamp("ended_at");
+        return new IncidentResponse(
+                rs.getLong("id"),
+                rs.getLong("health_check_id"),
+                rs.getTimestamp("started_at").toLocalDateTime(),
+                ended == null ? null : ended.toLocalDateTime(),
+                rs.getObject("duration_ms", Long.class),
+                rs.getString("first_error"),
+                rs.getObject("first_http_code", Integer.class));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * incident 를 연다. 이미 열린 게 있으면 아무것도 하지 않고 false.
+     * 동시에 두 노드가 열어도 uk_incident_open(열린 행만 값이 있는 생성 컬럼)이 하나만 남긴다.
+     */
+    public boolean open(Long healthCheckId, LocalDateTime startedAt, String firstError, Integer firstHttpCode) {
+        try {
+            return jdbcTemplate.update(
+                    "INSERT INTO incident (health_check_id, started_at, first_error, first_http_code) " +
+                    "SELECT ?, ?, ?, ? FROM DUAL " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM incident WHERE health_check_id = ? AND ended_at IS NULL)",
+                    healthCheckId, Timestamp.valueOf(startedAt), firstError, firstHttpCode, healthCheckId) > 0;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /** 열린 incident 를 닫는다. 닫은 건수(0 이면 열린 게 없었음) */
+    public int close(Long healthCheckId, LocalDateTime endedAt) {
+        return jdbcTemplate.update(
+                "UPDATE incident SET ended_at = ?, duration_ms = TIMESTAMPDIFF(MICROSECOND, started_at, ?) DIV 1000 " +
+                "WHERE health_check_id = ? AND ended_at IS NULL",
+                Timestamp.valueOf(endedAt), Timestamp.valueOf(endedAt), healthCheckId);
+    }
+
+    public List<IncidentResponse> findOpen() {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM incident WHERE ended_at IS NULL", ROW);
+    }
+
+    public List<IncidentResponse> findRecent(Long healthCheckId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM incident WHERE health_check_id = ? ORDER BY started_at DESC LIMIT ?",
+                ROW, healthCheckId, limit);
+    }
+
+    /** [from, to) 와 겹치는 incident. healthCheckId 가 null 이면 전체 */
+    public List<IncidentResponse> findOverlapping(Long healthCheckId, LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT " + COLUMNS + " FROM incident WHERE started_at < ? AND (ended_at IS NULL OR ended_at > ?)";
+        if (healthCheckId == null) {
+            return jdbcTemplate.query(sql, ROW, Timestamp.valueOf(to), Timestamp.valueOf(from));
+        }
+        return jdbcTemplate.query(sql + " AND health_check_id = ?", ROW,
+                Timestamp.valueOf(to), Timestamp.valueOf(from), healthCheckId);
+    }
+}
@@ -0,0 +1,70 @@
+package com.doomole.uptime.repo;
+
+import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.domain.ResultCursor;
+import com.doomole.uptime.dto.HealthCheckResultResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * health_check_result 를 엔티티 없이 읽는 조회 전용 저장소.
+ * - page: (observed_at, id) keyset 페이지. offset 없이 인덱스 (health_check_id, observed_at) 를 커서 위치부터 탄다
+ * - stream: 전진 전용 스트리밍 커서(MySQL fetchSize=Integer.MIN_VALUE)로 한 행씩 넘겨 메모리가 결과 크기와 무관하다
+ */
+@Repository
+public class ResultQueryRepo {
+    static final String COLUMNS =
+            "id, observed_at, status, http_code, latency_ms, error_message, dns_ms, connect_ms, tls_ms, ttfb_ms";
+
+    public static final RowMapper<HealthCheckResultResponse> RESULT_ROW = (rs, i) -> new HealthCheckResultResponse(
+            rs.getObject("id", Long.class),
+            rs.getTimestamp("observed_at").toLocalDateTime(),
+            HealthStatus.valueOf(rs.getString("status")),
+            rs.getObject("http_code", Integer.class),
+            rs.getObject("latency_ms", Integer.class),
+            rs.getString("error_message"),
+            rs.getObject("dns_ms", Integer.class),
+            rs.getObject("connect_ms", Integer.class),
+            rs.getObject("tls_ms", Integer.class),
+            rs.getObject("ttfb_ms", Integer.class));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public ResultQueryRepo(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Connector/J 는 forward-only + read-only + fetchSize=MIN_VALUE 일 때 행을 버퍼링하지 않고 흘려준다
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /** cursor 보다 오래된 limit 건 (최신순). cursor 가 null 이면 가장 최근부터 */
+    public List<HealthCheckResultResponse> page(Long healthCheckId, ResultCursor cursor, int limit) {
+        if (cursor == null) {
+            return jdbcTemplate.query(
+                    "SELECT " + COLUMNS + " FROM health_check_result WHERE health_check_id = ? " +
+                    "ORDER BY observed_at DESC, id DESC LIMIT ?", RESULT_ROW, healthCheckId, limit);
+        }
+        Timestamp at = Timestamp.valueOf(cursor.observedAt());
+        long id = cursor.id() == null ? 0 : cursor.id();
+        return jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM health_check_result WHERE health_check_id = ? " +
+                "AND observed_at <= ? AND (observed_at < ? OR id < ?) " +
+                "ORDER BY observed_at DESC, id DESC LIMIT ?", RESULT_ROW, healthCheckId, at, at, id, limit);
+    }
+
+    /** [from, to) 구간을 오래된 순으로 한 행씩 consumer 에 넘긴다 (호출 스레드에서 커넥션을 잡고 끝까지 읽음) */
+    public void stream(Long healthCheckId, LocalDateTime from, LocalDateTime to, Consumer<HealthCheckResultResponse> consumer) {
+        streamingJdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM health_check_result " +
+                "WHERE health_check_id = ? AND observed_at >= ? AND observed_at < ? ORDER BY observed_at, id",
+                rs -> { consumer.accept(RESULT_ROW.mapRow(rs, 0)); },
+                healthCheckId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+}
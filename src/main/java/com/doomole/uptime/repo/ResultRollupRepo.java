@@ -0,0 +1,205 @@
+package com.doomole.uptime.repo;
+
+import com.doomole.uptime.domain.LatencyHistogram;
+import com.doomole.uptime.domain.RollupTotals;
+import com.doomole.uptime.dto.ProbeResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 분/시간 단위 결과 롤업 테이블 (health_check_rollup_minute / health_check_rollup_hour).
+ * 배치 저장 시 같은 트랜잭션에서 (모니터, 버킷)별로 미리 합산한 뒤 ON DUPLICATE KEY UPDATE 로 누적한다.
+ * 분위수용 latency_hist(직렬화된 LatencyHistogram)는 SQL 로 더할 수 없어서 기존 값을 읽어 병합 후 덮어쓴다.
+ * 샤드 이관 중엔 이전 소유 노드의 writer 큐가 남아 두 노드가 같은 버킷을 쓸 수 있으므로,
+ * 기존 값은 SELECT ... FOR UPDATE 로 (키 순서대로) 잠그고 읽는다. 아직 없는 버킷은 REPEATABLE READ 의
+ * next-key 락으로 막히고, 그래도 데드락이 나면 배치 트랜잭션이 롤백돼 ResultBatchWriter 가 건별로 다시 쓴다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ResultRollupRepo {
+
+    public enum Grain {
+        MINUTE("health_check_rollup_minute", ChronoUnit.MINUTES),
+        HOUR("health_check_rollup_hour", ChronoUnit.HOURS);
+
+        final String table;
+        final ChronoUnit unit;
+
+        Grain(String table, ChronoUnit unit) {
+            this.table = table;
+            this.unit = unit;
+        }
+
+        public LocalDateTime truncate(LocalDateTime t) {
+            return t.truncatedTo(unit);
+        }
+    }
+
+    private static final String HIST_COLUMNS = IntStream.range(0, RollupTotals.HIST_BUCKETS)
+            .mapToObj(i -> "hist_" + i).collect(Collectors.joining(", "));
+
+    private static final int HIST_LOAD_CHUNK = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** 배치 결과를 분/시간 롤업에 누적 (호출자 트랜잭션 안에서) */
+    public void accumulate(List<ProbeResult> batch) {
+        for (Grain grain : Grain.values()) {
+            // 키 순서를 고정해 노드 간 upsert 락 순서를 맞춘다
+            Map<Key, RollupTotals> agg = new TreeMap<>(Comparator.comparing(Key::healthCheckId).thenComparing(Key::bucketStart));
+            for (ProbeResult r : batch) {
+                agg.computeIfAbsent(new Key(r.healthCheckId(), grain.truncate(r.observedAt())), k -> new RollupTotals()).add(r);
+            }
+            Map<Key, LatencyHistogram> stored = loadHistograms(grain, new ArrayList<>(agg.keySet()));
+            List<Row> rows = new ArrayList<>(agg.size());
+            agg.forEach((key, totals) -> {
+                LatencyHistogram merged = stored.getOrDefault(key, new LatencyHistogram());
+                merged.merge(totals.getHistogram());
+                rows.add(new Row(key, totals, merged.toBytes()));
+            });
+            jdbcTemplate.batchUpdate(upsertSql(grain), rows, rows.size(), ResultRollupRepo::bindUpsert);
+        }
+    }
+
+    /** [from, to) 구간 지연 히스토그램 병합 */
+    public LatencyHistogram histogram(Grain grain, Long healthCheckId, LocalDateTime from, LocalDateTime to) {
+        LatencyHistogram merged = new LatencyHistogram();
+        if (!from.isBefore(to)) return merged;
+        jdbcTemplate.query("SELECT latency_hist FROM " + grain.table +
+                        " WHERE health_check_id = ? AND bucket_start >= ? AND bucket_start < ? AND latency_hist IS NOT NULL",
+                rs -> {
+                    merged.merge(LatencyHistogram.fromBytes(rs.getBytes(1)));
+                }, healthCheckId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return merged;
+    }
+
+    // 병합 후 덮어쓸 때까지 다른 노드가 같은 버킷을 병합하지 못하게 잠근다 (accumulate 의 트랜잭션 안)
+    private Map<Key, LatencyHistogram> loadHistograms(Grain grain, List<Key> keys) {
+        Map<Key, LatencyHistogram> stored = new HashMap<>();
+        for (int from = 0; from < keys.size(); from += HIST_LOAD_CHUNK) {
+            List<Key> chunk = keys.subList(from, Math.min(keys.size(), from + HIST_LOAD_CHUNK));
+            String sql = "SELECT health_check_id, bucket_start, latency_hist FROM " + grain.table +
+                    " WHERE (health_check_id, bucket_start) IN (" +
+                    chunk.stream().map(k -> "(?, ?)").collect(Collectors.joining(", ")) + ") FOR UPDATE";
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                args[i * 2] = chunk.get(i).healthCheckId();
+                args[i * 2 + 1] = Timestamp.valueOf(chunk.get(i).bucketStart());
+            }
+            jdbcTemplate.query(sql, rs -> {
+                byte[] bytes = rs.getBytes(3);
+                if (bytes != null) {
+                    stored.put(new Key(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()), LatencyHistogram.fromBytes(bytes));
+                }
+            }, args);
+        }
+        return stored;
+    }
+
+    /** [from, to) 구간 버킷 합계 */
+    public RollupTotals sum(Grain grain, Long healthCheckId, LocalDateTime from, LocalDateTime to) {
+        RollupTotals totals = new RollupTotals();
+        if (!from.isBefore(to)) return totals;
+        String sql = "SELECT SUM(total), SUM(up_count), SUM(latency_count), SUM(latency_sum), " +
+                "MIN(latency_min), MAX(latency_max), " +
+                IntStream.range(0, RollupTotals.HIST_BUCKETS).mapToObj(i -> "SUM(hist_" + i + ")").collect(Collectors.joining(", ")) +
+                " FROM " + grain.table + " WHERE health_check_id = ? AND bucket_start >= ? AND bucket_start < ?";
+        jdbcTemplate.query(sql, rs -> {
+            if (rs.getObject(1) == null) return; // 구간에 행 없음
+            long[] hist = new long[RollupTotals.HIST_BUCKETS];
+            for (int i = 0; i < hist.length; i++) hist[i] = rs.getLong(7 + i);
+            totals.merge(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                    nullableInt(rs, 5), nullableInt(rs, 6), hist);
+        }, healthCheckId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return totals;
+    }
+
+    /** [from, to) 구간 버킷을 행 단위로 흘려보낸다 (전체 모니터, 메모리에 모으지 않음) */
+    public void scan(Grain grain, LocalDateTime from, LocalDateTime to, Consumer<RollupRow> consumer) {
+        String sql = "SELECT health_check_id, bucket_start, total, up_count, latency_count, latency_sum, latency_min, latency_max, " +
+                "latency_hist FROM " + grain.table + " WHERE bucket_start >= ? AND bucket_start < ?";
+        jdbcTemplate.query(sql, rs -> {
+            byte[] hist = rs.getBytes(9);
+            consumer.accept(new RollupRow(
+                    rs.getLong(1),
+                    rs.getTimestamp(2).toLocalDateTime(),
+                    rs.getLong(3),
+                    rs.getLong(4),
+                    rs.getLong(5),
+                    rs.getLong(6),
+                    nullableInt(rs, 7),
+                    nullableInt(rs, 8),
+                    hist == null ? null : LatencyHistogram.fromBytes(hist)));
+        }, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    public int deleteBefore(Grain grain, LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM " + grain.table + " WHERE bucket_start < ?", Timestamp.valueOf(cutoff));
+    }
+
+    private static String upsertSql(Grain grain) {
+        StringBuilder sql = new StringBuilder()
+                .append("INSERT INTO ").append(grain.table)
+                .append(" (health_check_id, bucket_start, total, up_count, latency_count, latency_sum, latency_min, latency_max, ")
+                .append(HIST_COLUMNS).append(", latency_hist) VALUES (?, ?, ?, ?, ?, ?, ?, ?")
+                .append(", ?".repeat(RollupTotals.HIST_BUCKETS)).append(", ?) ON DUPLICATE KEY UPDATE ")
+                .append("latency_hist = VALUES(latency_hist), ")
+                .append("total = total + VALUES(total), ")
+                .append("up_count = up_count + VALUES(up_count), ")
+                .append("latency_count = latency_count + VALUES(latency_count), ")
+                .append("latency_sum = latency_sum + VALUES(latency_sum), ")
+                .append("latency_min = LEAST(COALESCE(latency_min, VALUES(latency_min)), COALESCE(VALUES(latency_min), latency_min)), ")
+                .append("latency_max = GREATEST(COALESCE(latency_max, VALUES(latency_max)), COALESCE(VALUES(latency_max), latency_max))");
+        for (int i = 0; i < RollupTotals.HIST_BUCKETS; i++) {
+            sql.append(", hist_").append(i).append(" = hist_").append(i).append(" + VALUES(hist_").append(i).append(")");
+        }
+        return sql.toString();
+    }
+
+    private static void bindUpsert(PreparedStatement ps, Row row) throws SQLException {
+        Key key = row.key();
+        RollupTotals t = row.totals();
+        ps.setLong(1, key.healthCheckId());
+        ps.setTimestamp(2, Timestamp.valueOf(key.bucketStart()));
+        ps.setLong(3, t.getTotal());
+        ps.setLong(4, t.getUp());
+        ps.setLong(5, t.getLatencyCount());
+        ps.setLong(6, t.getLatencySum());
+        if (t.getLatencyMin() == null) ps.setNull(7, Types.INTEGER); else ps.setInt(7, t.getLatencyMin());
+        if (t.getLatencyMax() == null) ps.setNull(8, Types.INTEGER); else ps.setInt(8, t.getLatencyMax());
+        long[] hist = t.getHist();
+        for (int i = 0; i < hist.length; i++) ps.setLong(9 + i, hist[i]);
+        ps.setBytes(9 + hist.length, row.latencyHist()); // 기존 값과 병합된 전체
+    }
+
+    private static Integer nullableInt(ResultSet rs, int idx) throws SQLException {
+        int v = rs.getInt(idx);
+        return rs.wasNull() ? null : v;
+    }
+
+    private record Key(Long healthCheckId, LocalDateTime bucketStart) {}
+
+    private record Row(Key key, RollupTotals totals, byte[] latencyHist) {}
+
+    public record RollupRow(long healthCheckId, LocalDateTime bucketStart, long total, long up,
+                            long latencyCount, long latencySum, Integer latencyMin, Integer latencyMax,
+                            LatencyHistogram histogram) {}
+}
@@ -0,0 +1,127 @@
+package com.doomole.uptime.repo;
+
+import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.domain.ResultRun;
+import com.doomole.uptime.dto.HealthCheckResultResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 결과 run 저장소 (health_check_result_run, uptime.results.runs.enabled=true 일 때만 사용).
+ * run 은 (health_check_id, started_at) 로 식별하고, 메모리의 누적값을 그대로 덮어쓰는 upsert 로 저장한다.
+ * 조회 시에는 run 을 개별 결과로 펼쳐서 돌려준다 (시각은 구간 안 균등 배치, 지연은 run 평균).
+ */
+@Repository
+public class ResultRunRepo {
+    private static final String UPSERT =
+            "INSERT INTO health_check_result_run (health_check_id, started_at, ended_at, status, http_code, error_message, " +
+            "sample_count, latency_count, latency_sum, latency_min, latency_max) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE ended_at = VALUES(ended_at), sample_count = VALUES(sample_count), " +
+            "latency_count = VALUES(latency_count), latency_sum = VALUES(latency_sum), " +
+            "latency_min = VALUES(latency_min), latency_max = VALUES(latency_max)";
+
+    private static final String COLUMNS = "health_check_id, started_at, ended_at, status, http_code, error_message, " +
+            "sample_count, latency_count, latency_sum, latency_min, latency_max";
+
+    private static final RowMapper<ResultRun> RUN_ROW = (rs, i) -> new ResultRun(
+            rs.getLong("health_check_id"),
+            rs.getTimestamp("started_at").toLocalDateTime(),
+            rs.getTimestamp("ended_at").toLocalDateTime(),
+            HealthStatus.valueOf(rs.getString("status")),
+            rs.getObject("http_code", Integer.class),
+            rs.getString("error_message"),
+            rs.getInt("sample_count"),
+            rs.getInt("latency_count"),
+            rs.getLong("latency_sum"),
+            rs.getObject("latency_min", Integer.class),
+            rs.getObject("latency_max", Integer.class)).loaded();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public ResultRunRepo(JdbcTemplate jdbcTemplate,
+                         @Value("${uptime.results.runs.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void upsert(List<ResultRun> runs) {
+        if (runs.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPSERT, runs, runs.size(), (ps, r) -> {
+            ps.setLong(1, r.getHealthCheckId());
+            ps.setTimestamp(2, Timestamp.valueOf(r.getStartedAt()));
+            ps.setTimestamp(3, Timestamp.valueOf(r.getEndedAt()));
+            ps.setString(4, r.getStatus().name());
+            if (r.getHttpCode() == null) ps.setNull(5, Types.INTEGER);
+            else ps.setInt(5, r.getHttpCode());
+            ps.setString(6, r.getError());
+            ps.setInt(7, r.getCount());
+            ps.setInt(8, r.getLatencyCount());
+            ps.setLong(9, r.getLatencySum());
+            ps.setObject(10, r.getLatencyMin(), Types.INTEGER);
+            ps.setObject(11, r.getLatencyMax(), Types.INTEGER);
+        });
+    }
+
+    /** 모니터별 가장 최근 run (재기동 후 이어 붙이기용) */
+    public Map<Long, ResultRun> latest(Collection<Long> healthCheckIds) {
+        if (healthCheckIds.isEmpty()) return Map.of();
+        String in = healthCheckIds.stream().map(id -> "?").collect(Collectors.joining(", "));
+        Map<Long, ResultRun> map = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM health_check_result_run r " +
+                "JOIN (SELECT health_check_id AS hc, MAX(started_at) AS s FROM health_check_result_run " +
+                "      WHERE health_check_id IN (" + in + ") GROUP BY health_check_id) m " +
+                "ON r.health_check_id = m.hc AND r.started_at = m.s",
+                RUN_ROW, healthCheckIds.toArray()).forEach(run -> map.put(run.getHealthCheckId(), run));
+        return map;
+    }
+
+    /** 최근 limit 건을 run 에서 펼쳐서 (최신순) */
+    public List<HealthCheckResultResponse> recent(Long healthCheckId, int limit) {
+        // run 하나는 최소 1건이므로 limit 개 run 이면 충분하다
+        List<ResultRun> runs = jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM health_check_result_run WHERE health_check_id = ? " +
+                "ORDER BY started_at DESC LIMIT ?", RUN_ROW, healthCheckId, limit);
+        List<HealthCheckResultResponse> out = new ArrayList<>(limit);
+        for (ResultRun run : runs) {
+            expand(run, limit - out.size(), out);
+            if (out.size() >= limit) break;
+        }
+        return out;
+    }
+
+    public int deleteEndedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM health_check_result_run WHERE ended_at < ?", Timestamp.valueOf(cutoff));
+    }
+
+    // 최신 표본부터 max 건
+    static void expand(ResultRun run, int max, List<HealthCheckResultResponse> out) {
+        int n = run.getCount();
+        long spanNs = Duration.between(run.getStartedAt(), run.getEndedAt()).toNanos();
+        Double avg = run.avgLatencyMs();
+        Integer latency = avg == null ? null : (int) Math.round(avg);
+        for (int i = n - 1; i >= 0 && max-- > 0; i--) {
+            LocalDateTime at = i == n - 1 ? run.getEndedAt() : run.getStartedAt().plusNanos(spanNs / (n - 1) * i);
+            out.add(new HealthCheckResultResponse(null, at, run.getStatus(), run.getHttpCode(), latency,
+                    run.getError(), null, null, null, null));
+        }
+    }
+}
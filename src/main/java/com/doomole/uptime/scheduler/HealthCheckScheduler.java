@@ -1,55 +1,83 @@
 package com.doomole.uptime.scheduler;
 
-import com.doomole.uptime.entity.HealthCheck;
-import com.doomole.uptime.repo.HealthCheckRepo;
-import com.doomole.uptime.repo.HealthCheckResultRepo;
-import com.doomole.uptime.service.HealthCheckService;
+import com.doomole.uptime.repo.ResultRollupRepo;
+import com.doomole.uptime.repo.ResultRollupRepo.Grain;
+import com.doomole.uptime.repo.ResultRunRepo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class HealthCheckScheduler {
-    private final HealthCheckRepo healthCheckRepo;
-    private final HealthCheckResultRepo healthCheckResultRepo;
-    private final HealthCheckService healthCheckService;
+    // 보관기간 DELETE 는 공유 테이블이라 클러스터에서 한 노드만
+    private static final String RETENTION_LOCK_KEY = "uptime:retention:lock";
+    private static final Duration RETENTION_LOCK_TTL = Duration.ofMinutes(30);
+
+    private final ResultRollupRepo resultRollupRepo;
+    private final ResultPartitionManager resultPartitionManager;
+    private final ResultPurgeJob resultPurgeJob;
+    private final ResultRunRepo resultRunRepo;
+    private final StringRedisTemplate redis;
 
     @Value("${uptime.results.retentionDays:30}")
     private int retentionDays;
 
-    @Scheduled(fixedDelayString = "30000")
-    public void tick() {
-        LocalDateTime now = LocalDateTime.now();
-        for (HealthCheck healthCheck : healthCheckRepo.findByEnabledTrue()) {
-            if (!healthCheckService.shouldRun(healthCheck, now)) continue;
+    @Value("${uptime.rollup.minuteRetentionDays:2}")
+    private int minuteRetentionDays;
 
-            String corrId = "sched-" + healthCheck.getId() + "-" + java.util.UUID.randomUUID().toString().substring(0,8);
-            org.slf4j.MDC.put(com.doomole.uptime.filter.CorrelationIdFilter.MDC_KEY, corrId);
-            try {
-                log.info("Scheduler run check id={} url={}", healthCheck.getId(), healthCheck.getUrl());
-                healthCheckService.runOneCheck(healthCheck, now);
-            } finally {
-                org.slf4j.MDC.remove(com.doomole.uptime.filter.CorrelationIdFilter.MDC_KEY);
-            }
-        }
-    }
+    @Value("${uptime.rollup.hourRetentionDays:400}")
+    private int hourRetentionDays;
 
     @Scheduled(cron = "0 0 3 * * *")
     public void cleanup() {
         String corrId = "cleanup-" + java.util.UUID.randomUUID().toString().substring(0,8);
         org.slf4j.MDC.put(com.doomole.uptime.filter.CorrelationIdFilter.MDC_KEY, corrId);
         try {
-            LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
-            long deleted = healthCheckResultRepo.deleteByObservedAtBefore(cutoff);
-            log.info("Cleanup deleted {} rows older than {}", deleted, cutoff);
+            // 파티션 모드면 원본 보관기간은 ResultPartitionManager 가 DROP PARTITION 으로 처리
+            if (!resultPartitionManager.isEnabled()) {
+                LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+                boolean started = resultPurgeJob.start(cutoff);
+                log.info("Cleanup purge of rows older than {} {}", cutoff, started ? "started" : "already running");
+            }
+
+            String token;
+            try {
+                token = RedisLocks.tryAcquire(redis, RETENTION_LOCK_KEY, RETENTION_LOCK_TTL);
+            } catch (Exception e) {
+                log.warn("Retention lock acquire failed: {}", e.toString());
+                return;
+            }
+            if (token == null) {
+                log.info("Cleanup retention deletes running on another node, skip");
+                return;
+            }
+            try {
+                deleteExpired();
+            } finally {
+                RedisLocks.release(redis, RETENTION_LOCK_KEY, token);
+            }
         } finally {
             org.slf4j.MDC.remove(com.doomole.uptime.filter.CorrelationIdFilter.MDC_KEY);
         }
     }
+
+    private void deleteExpired() {
+        if (resultRunRepo.isEnabled()) {
+            int runs = resultRunRepo.deleteEndedBefore(LocalDateTime.now().minusDays(retentionDays));
+            log.info("Cleanup deleted result runs={}", runs);
+        }
+
+        // 롤업은 원본보다 오래 보관 (요약 window 가 원본 보관기간을 넘을 수 있음)
+        int minutes = resultRollupRepo.deleteBefore(Grain.MINUTE, LocalDateTime.now().minusDays(minuteRetentionDays));
+        int hours = resultRollupRepo.deleteBefore(Grain.HOUR, LocalDateTime.now().minusDays(hourRetentionDays));
+        log.info("Cleanup deleted rollups minute={} hour={}", minutes, hours);
+    }
 }
@@ -0,0 +1,261 @@
+package com.doomole.uptime.scheduler;
+
+import com.doomole.uptime.domain.HealthCheckChangedEvent;
+import com.doomole.uptime.domain.MonitorDescriptor;
+import com.doomole.uptime.service.MonitorRegistry;
+import com.doomole.uptime.service.ProbeEngine;
+import com.doomole.uptime.utils.CommonUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 모니터별 다음 실행 시각(deadline)을 우선순위 큐로 관리하는 전용 스케줄러.
+ * 전체 목록을 주기적으로 훑지 않고, 가장 이른 deadline 까지만 잠들었다가 깨어나
+ * 도래한 모니터만 ProbeEngine 에 넘긴다. 비용은 fleet 크기가 아니라 due 건수에 비례한다.
+ * 각 모니터의 발사 시점은 id 해시로 정한 위상(phase)에 맞춰 주기 안에 고르게 흩어지며,
+ * epoch 기준으로 정렬되므로 재시작해도 같은 박자로 돌아와 한꺼번에 몰리지 않는다.
+ */
+@Slf4j
+@Component
+public class ProbeDeadlineScheduler {
+    private static final int MIN_INTERVAL_SECONDS = 1;
+    private static final long PHASE_SEED = 0x5deece66dL; // 샤드 해시와 위상이 엮이지 않도록
+
+    private final MonitorRegistry monitorRegistry;
+    private final ProbeEngine probeEngine;
+    private final ShardCoordinator shardCoordinator;
+    private final Timer driftTimer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Slot> queue = new PriorityQueue<>(Comparator.comparingLong(Slot::deadlineMs));
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ProbeDeadlineScheduler(MonitorRegistry monitorRegistry,
+                                  ProbeEngine probeEngine,
+                                  ShardCoordinator shardCoordinator,
+                                  MeterRegistry meterRegistry) {
+        this.monitorRegistry = monitorRegistry;
+        this.probeEngine = probeEngine;
+        this.shardCoordinator = shardCoordinator;
+        this.driftTimer = Timer.builder("uptime.schedule.drift")
+                .description("deadline 대비 실제 발사 지연")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long now = System.currentTimeMillis();
+        List<MonitorDescriptor> enabled = monitorRegistry.enabled();
+        lock.lock();
+        try {
+            for (MonitorDescriptor monitor : enabled) {
+                upsertLocked(monitor, now, false);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        running = true;
+        worker = new Thread(this::loop, "probe-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("ProbeDeadlineScheduler started monitors={}", enabled.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) worker.interrupt();
+    }
+
+    // 등록/수정/삭제는 커밋 이후에 반영
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHealthCheckChanged(HealthCheckChangedEvent event) {
+        lock.lock();
+        try {
+            if (event.isDeleted() || !event.monitor().enabled()) {
+                entries.remove(event.healthCheckId());
+            } else {
+                // 새로 등록/활성화된 모니터는 첫 결과를 바로 보여주기 위해 즉시 1회 실행
+                upsertLocked(event.monitor(), System.currentTimeMillis(), running);
+            }
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** 모니터별 스케줄 상태 (drift 확인용) */
+    public List<ScheduleStatus> snapshot() {
+        lock.lock();
+        try {
+            List<ScheduleStatus> list = new ArrayList<>(entries.size());
+            for (Entry e : entries.values()) {
+                list.add(new ScheduleStatus(
+                        e.monitor.id(),
+                        e.intervalMs / 1000,
+                        Instant.ofEpochMilli(e.deadlineMs),
+                        e.lastDriftMs,
+                        e.maxDriftMs,
+                        e.fired,
+                        e.skipped));
+            }
+            list.sort(Comparator.comparingLong(ScheduleStatus::lastDriftMs).reversed());
+            return list;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void loop() {
+        List<MonitorDescriptor> due = new ArrayList<>();
+        while (running) {
+            long now;
+            lock.lock();
+            try {
+                // 무효화된(수정/삭제된) 슬롯은 버리고, 가장 이른 deadline 까지 대기
+                Slot head;
+                while ((head = queue.peek()) != null && isStale(head)) queue.poll();
+                now = System.currentTimeMillis();
+                if (head == null) {
+                    changed.await();
+                    continue;
+                }
+                if (head.deadlineMs() > now) {
+                    changed.await(head.deadlineMs() - now, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+
+                while ((head = queue.peek()) != null && head.deadlineMs() <= now) {
+                    queue.poll();
+                    if (isStale(head)) continue;
+                    Entry e = entries.get(head.healthCheckId());
+                    e.recordDrift(now - e.deadlineMs);
+                    driftTimer.record(Math.max(0, now - e.deadlineMs), TimeUnit.MILLISECONDS);
+                    due.add(e.monitor);
+                    reschedule(e, now);
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            // 제출은 락 밖에서 (ProbeEngine.submit 은 논블로킹). 내 샤드가 아니면 박자만 유지하고 건너뜀
+            LocalDateTime observedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault());
+            for (MonitorDescriptor monitor : due) {
+                if (!shardCoordinator.owns(monitor.id())) continue;
+                try {
+                    probeEngine.submit(monitor, observedAt);
+                } catch (Exception ex) {
+                    log.error("Probe submit failed id={}", monitor.id(), ex);
+                }
+            }
+            due.clear();
+        }
+    }
+
+    private void upsertLocked(MonitorDescriptor monitor, long now, boolean fireNowIfNew) {
+        long intervalMs = Math.max(MIN_INTERVAL_SECONDS, monitor.intervalSeconds()) * 1000L;
+        long phaseMs = Math.floorMod(CommonUtil.mix64(monitor.id() ^ PHASE_SEED), intervalMs);
+        Entry prev = entries.get(monitor.id());
+        long deadlineMs;
+        if (prev != null && prev.intervalMs == intervalMs) {
+            deadlineMs = prev.deadlineMs; // 주기 변화 없으면 기존 박자 유지
+        } else if (prev == null && fireNowIfNew) {
+            deadlineMs = now;
+        } else {
+            deadlineMs = nextAligned(phaseMs, intervalMs, now, true);
+        }
+        Entry e = new Entry(monitor, intervalMs, phaseMs, deadlineMs);
+        if (prev != null) {
+            e.maxDriftMs = prev.maxDriftMs;
+            e.fired = prev.fired;
+            e.skipped = prev.skipped;
+        }
+        entries.put(monitor.id(), e);
+        queue.add(new Slot(monitor.id(), deadlineMs, e));
+    }
+
+    // 다음 위상 슬롯으로 (고정 박자). 밀려서 지나친 슬롯은 건너뛰고 skipped 로 센다
+    private void reschedule(Entry e, long now) {
+        long next = nextAligned(e.phaseMs, e.intervalMs, now, false);
+        long missed = (next - e.deadlineMs) / e.intervalMs - 1;
+        if (missed > 0) e.skipped += missed;
+        e.deadlineMs = next;
+        queue.add(new Slot(e.monitor.id(), next, e));
+    }
+
+    // (t - phase) % interval == 0 을 만족하는 now 이후(inclusive 면 now 포함) 첫 시각
+    private static long nextAligned(long phaseMs, long intervalMs, long now, boolean inclusive) {
+        long next = now + Math.floorMod(phaseMs - now, intervalMs);
+        if (!inclusive && next <= now) next += intervalMs;
+        return next;
+    }
+
+    private boolean isStale(Slot slot) {
+        Entry e = entries.get(slot.healthCheckId());
+        return e != slot.owner() || e.deadlineMs != slot.deadlineMs();
+    }
+
+    private record Slot(Long healthCheckId, long deadlineMs, Entry owner) {}
+
+    private static final class Entry {
+        final MonitorDescriptor monitor;
+        final long intervalMs;
+        final long phaseMs;
+        long deadlineMs;
+        long lastDriftMs;
+        long maxDriftMs;
+        long fired;
+        long skipped;
+
+        Entry(MonitorDescriptor monitor, long intervalMs, long phaseMs, long deadlineMs) {
+            this.monitor = monitor;
+            this.intervalMs = intervalMs;
+            this.phaseMs = phaseMs;
+            this.deadlineMs = deadlineMs;
+        }
+
+        void recordDrift(long driftMs) {
+            lastDriftMs = driftMs;
+            maxDriftMs = Math.max(maxDriftMs, driftMs);
+            fired++;
+        }
+    }
+
+    public record ScheduleStatus(
+            Long healthCheckId,
+            long intervalSeconds,
+            Instant nextFireAt,
+            long lastDriftMs,
+            long maxDriftMs,
+            long fired,
+            long skipped
+    ) {}
+}
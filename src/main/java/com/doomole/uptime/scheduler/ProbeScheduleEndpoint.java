@@ -0,0 +1,34 @@
+package com.doomole.uptime.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/probeschedule : 모니터별 다음 발사 시각과 schedule drift.
+ * drift 가 interval 에 근접하거나 skipped 가 늘면 스케줄러/엔진이 못 따라가는 것.
+ * 클러스터 모드면 이 노드의 샤드 소유 현황도 함께 보여준다.
+ */
+@Component
+@Endpoint(id = "probeschedule")
+@RequiredArgsConstructor
+public class ProbeScheduleEndpoint {
+    private final ProbeDeadlineScheduler scheduler;
+    private final ShardCoordinator shardCoordinator;
+
+    @ReadOperation
+    public Map<String, Object> schedule() {
+        List<ProbeDeadlineScheduler.ScheduleStatus> list = scheduler.snapshot();
+        long maxDrift = list.stream().mapToLong(ProbeDeadlineScheduler.ScheduleStatus::lastDriftMs).max().orElse(0);
+        return Map.of(
+                "monitors", list.size(),
+                "maxLastDriftMs", maxDrift,
+                "cluster", shardCoordinator.status(),
+                "entries", list
+        );
+    }
+}
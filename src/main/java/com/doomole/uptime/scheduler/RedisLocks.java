@@ -0,0 +1,46 @@
+package com.doomole.uptime.scheduler;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 노드 간 작업 락/리스 (SET NX PX + 소유 토큰).
+ * 해제·연장은 값이 내 토큰일 때만 Lua 한 번으로 한다. get 후 delete 로 나누면 그 사이 TTL 이 끝나
+ * 다른 노드가 새로 잡은 락을 지울 수 있다.
+ */
+final class RedisLocks {
+    // 내 토큰일 때만 삭제
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    // 내 토큰일 때만 TTL 연장
+    private static final RedisScript<Long> EXTEND = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private RedisLocks() {
+    }
+
+    /** 잡으면 토큰, 이미 누가 잡고 있으면 null */
+    static String tryAcquire(StringRedisTemplate redis, String key, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        return Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(key, token, ttl)) ? token : null;
+    }
+
+    static boolean release(StringRedisTemplate redis, String key, String token) {
+        Long n = redis.execute(RELEASE, List.of(key), token);
+        return n != null && n == 1L;
+    }
+
+    /** 아직 내 락이면 ttl 로 연장. 이미 놓쳤으면 false */
+    static boolean extend(StringRedisTemplate redis, String key, String token, Duration ttl) {
+        Long n = redis.execute(EXTEND, List.of(key), token, String.valueOf(ttl.toMillis()));
+        return n != null && n == 1L;
+    }
+}
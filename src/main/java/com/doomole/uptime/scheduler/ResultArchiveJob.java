@@ -0,0 +1,119 @@
+package com.doomole.uptime.scheduler;
+
+import com.doomole.uptime.dto.HealthCheckResultResponse;
+import com.doomole.uptime.filter.CorrelationIdFilter;
+import com.doomole.uptime.repo.ResultQueryRepo;
+import com.doomole.uptime.service.ResultArchive;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * afterDays 보다 오래된 결과를 모니터·일 단위로 ResultArchive 파일에 옮기고 MySQL 에서 지운다.
+ * 파일을 fsync 한 뒤에만 행을 지우므로, 중간에 죽으면 다음 실행이 기존 파일과 남은 행을 합쳐 다시 쓴다.
+ * 요약/분위수는 롤업(시간 단위 400일)에서 나오므로 아카이브 이후에도 그대로다.
+ */
+@Slf4j
+@Component
+public class ResultArchiveJob {
+    private static final String LOCK_KEY = "uptime:results:archive:lock";
+    private static final Duration LOCK_TTL = Duration.ofMinutes(10);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redis;
+    private final ResultArchive resultArchive;
+    private final int afterDays;
+    private final int retentionDays;
+
+    public ResultArchiveJob(JdbcTemplate jdbcTemplate,
+                            StringRedisTemplate redis,
+                            ResultArchive resultArchive,
+                            @Value("${uptime.results.archive.afterDays:7}") int afterDays,
+                            @Value("${uptime.results.archive.retentionDays:366}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redis = redis;
+        this.resultArchive = resultArchive;
+        this.afterDays = afterDays;
+        this.retentionDays = retentionDays;
+    }
+
+    // 03:00 보관기간 정리보다 먼저
+    @Scheduled(cron = "0 30 2 * * *")
+    public void archive() {
+        if (!resultArchive.isEnabled()) return;
+        String token = RedisLocks.tryAcquire(redis, LOCK_KEY, LOCK_TTL);
+        if (token == null) return;
+        MDC.put(CorrelationIdFilter.MDC_KEY, "archive-" + token.substring(0, 8));
+        try {
+            LocalDate horizon = LocalDate.now().minusDays(afterDays);
+            long days = 0, rows = 0;
+            for (Long id : jdbcTemplate.queryForList("SELECT DISTINCT id FROM health_check", Long.class)) {
+                long[] moved = archiveMonitor(id, horizon);
+                days += moved[0];
+                rows += moved[1];
+                if (!RedisLocks.extend(redis, LOCK_KEY, token, LOCK_TTL)) {
+                    log.warn("Archive lock lost, stopping at monitor id={}", id);
+                    break;
+                }
+            }
+            int expired = resultArchive.deleteBefore(LocalDate.now().minusDays(retentionDays));
+            log.info("Archive done before={} days={} rows={} expiredFiles={}", horizon, days, rows, expired);
+        } catch (Exception e) {
+            log.error("Archive failed", e);
+        } finally {
+            RedisLocks.release(redis, LOCK_KEY, token);
+            MDC.remove(CorrelationIdFilter.MDC_KEY);
+        }
+    }
+
+    // horizon 이전 날짜를 하루씩: 파일 쓰기(fsync) → 그 날의 행 삭제
+    private long[] archiveMonitor(Long id, LocalDate horizon) {
+        Timestamp horizonTs = Timestamp.valueOf(horizon.atStartOfDay());
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(observed_at) FROM health_check_result WHERE health_check_id = ? AND observed_at < ?",
+                Timestamp.class, id, horizonTs);
+        if (oldest == null) return new long[]{0, 0};
+
+        long days = 0, rows = 0;
+        for (LocalDate day = oldest.toLocalDateTime().toLocalDate(); day.isBefore(horizon); day = day.plusDays(1)) {
+            Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+            Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+            List<HealthCheckResultResponse> fresh = jdbcTemplate.query(
+                    "SELECT id, observed_at, status, http_code, latency_ms, error_message, dns_ms, connect_ms, tls_ms, ttfb_ms " +
+                    "FROM health_check_result WHERE health_check_id = ? AND observed_at >= ? AND observed_at < ? " +
+                    "ORDER BY observed_at", ResultQueryRepo.RESULT_ROW, id, from, to);
+            if (fresh.isEmpty()) continue;
+
+            resultArchive.writeDay(id, day, merge(resultArchive.readDay(id, day), fresh));
+            rows += jdbcTemplate.update(
+                    "DELETE FROM health_check_result WHERE health_check_id = ? AND observed_at >= ? AND observed_at < ?",
+                    id, from, to);
+            days++;
+        }
+        return new long[]{days, rows};
+    }
+
+    // 지난 실행이 파일만 쓰고 죽었으면 같은 시각의 행이 양쪽에 있다 → 시각 기준으로 합친다
+    private static List<HealthCheckResultResponse> merge(List<HealthCheckResultResponse> archived,
+                                                         List<HealthCheckResultResponse> fresh) {
+        if (archived.isEmpty()) return fresh;
+        // 파일은 ms 정밀도라 ms 로 맞춰 비교
+        TreeMap<LocalDateTime, HealthCheckResultResponse> byTime = new TreeMap<>();
+        for (HealthCheckResultResponse r : archived) byTime.put(r.observedAt(), r);
+        for (HealthCheckResultResponse r : fresh) byTime.put(r.observedAt().truncatedTo(ChronoUnit.MILLIS), r);
+        return new ArrayList<>(byTime.values());
+    }
+}
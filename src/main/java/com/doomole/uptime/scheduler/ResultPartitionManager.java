@@ -0,0 +1,119 @@
+package com.doomole.uptime.scheduler;
+
+import com.doomole.uptime.filter.CorrelationIdFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * health_check_result 일 단위 RANGE 파티션 관리 (uptime.results.partitioning.enabled=true 일 때).
+ * - 앞으로 precreateDays 일치 파티션을 미리 만든다 (비어 있는 pmax 를 REORGANIZE 하므로 즉시 끝남)
+ * - 보관기간이 지난 파티션은 DROP PARTITION 으로 통째로 버린다 (행 단위 DELETE/undo 없음)
+ * DDL 은 여러 노드가 동시에 돌리지 않도록 Redis 락을 잡은 노드만 수행한다.
+ * 테이블 전환은 src/main/resources/db/V014__partition_health_check_result.sql 참고.
+ */
+@Slf4j
+@Component
+public class ResultPartitionManager {
+    static final String TABLE = "health_check_result";
+    private static final String MAX_PARTITION = "pmax";
+    private static final String LOCK_KEY = "uptime:results:partition:lock";
+    private static final Duration LOCK_TTL = Duration.ofMinutes(10);
+    private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redis;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int precreateDays;
+
+    public ResultPartitionManager(JdbcTemplate jdbcTemplate,
+                                  StringRedisTemplate redis,
+                                  @Value("${uptime.results.partitioning.enabled:false}") boolean enabled,
+                                  @Value("${uptime.results.retentionDays:30}") int retentionDays,
+                                  @Value("${uptime.results.partitioning.precreateDays:7}") int precreateDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redis = redis;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.precreateDays = precreateDays;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        maintain();
+    }
+
+    @Scheduled(cron = "0 10 * * * *")
+    public void maintain() {
+        if (!enabled) return;
+        String token = RedisLocks.tryAcquire(redis, LOCK_KEY, LOCK_TTL);
+        if (token == null) return;
+
+        MDC.put(CorrelationIdFilter.MDC_KEY, "partition-" + token.substring(0, 8));
+        try {
+            LocalDate today = LocalDate.now();
+            precreate(today);
+            dropExpired(today.minusDays(retentionDays));
+        } catch (Exception e) {
+            log.error("Partition maintenance failed", e);
+        } finally {
+            RedisLocks.release(redis, LOCK_KEY, token);
+            MDC.remove(CorrelationIdFilter.MDC_KEY);
+        }
+    }
+
+    // pmax 앞에 [day, day+1) 파티션을 하나씩 끼워 넣는다
+    private void precreate(LocalDate today) {
+        LocalDate last = lastPartitionDay();
+        for (LocalDate day = today; !day.isAfter(today.plusDays(precreateDays)); day = day.plusDays(1)) {
+            if (last != null && !day.isAfter(last)) continue;
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" +
+                    "PARTITION " + day.format(NAME) + " VALUES LESS THAN (TO_DAYS('" + day.plusDays(1) + "')), " +
+                    "PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE)");
+            log.info("Created partition {} on {}", day.format(NAME), TABLE);
+        }
+    }
+
+    // 상한이 cutoff 이하인(= 전부 cutoff 이전 데이터인) 파티션을 버린다
+    private void dropExpired(LocalDate cutoff) {
+        List<String> expired = jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME <> ? " +
+                "AND PARTITION_DESCRIPTION <> 'MAXVALUE' AND CAST(PARTITION_DESCRIPTION AS UNSIGNED) <= TO_DAYS(?) " +
+                "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, TABLE, MAX_PARTITION, cutoff.toString());
+        if (expired.isEmpty()) return;
+
+        long t0 = System.nanoTime();
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", expired));
+        log.info("Dropped partitions {} older than {} in {}ms", expired, cutoff, (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    // pmax 바로 앞 파티션이 담는 마지막 날 (파티션이 pmax 뿐이면 null)
+    private LocalDate lastPartitionDay() {
+        List<Long> bounds = jdbcTemplate.queryForList(
+                "SELECT CAST(PARTITION_DESCRIPTION AS UNSIGNED) FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_DESCRIPTION <> 'MAXVALUE' " +
+                "ORDER BY PARTITION_ORDINAL_POSITION DESC LIMIT 1",
+                Long.class, TABLE);
+        if (bounds.isEmpty() || bounds.get(0) == null) return null;
+        String lastDay = jdbcTemplate.queryForObject("SELECT FROM_DAYS(?) - INTERVAL 1 DAY", String.class, bounds.get(0));
+        return LocalDate.parse(lastDay);
+    }
+}
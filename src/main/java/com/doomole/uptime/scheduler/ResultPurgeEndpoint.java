@@ -0,0 +1,23 @@
+package com.doomole.uptime.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/resultpurge : 보관기간 정리 진행률 (rows/sec, 다음 id, 남은 건수 추정, 현재 chunk/쉬는 시간).
+ */
+@Component
+@Endpoint(id = "resultpurge")
+@RequiredArgsConstructor
+public class ResultPurgeEndpoint {
+    private final ResultPurgeJob resultPurgeJob;
+
+    @ReadOperation
+    public Map<String, Object> purge() {
+        return resultPurgeJob.status();
+    }
+}
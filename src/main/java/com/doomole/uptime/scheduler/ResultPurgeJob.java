@@ -0,0 +1,262 @@
+package com.doomole.uptime.scheduler;
+
+import com.doomole.uptime.filter.CorrelationIdFilter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * health_check_result 보관기간 정리 (파티션 모드가 아닐 때).
+ * PK(id) 구간을 chunk 단위로 잘라 "id 범위 AND observed_at < cutoff" 벌크 DELETE 를 반복한다.
+ * - 엔티티를 읽지 않으므로 메모리와 무관하고, 한 트랜잭션이 chunk 하나라 undo 가 커지지 않는다
+ * - 직전 chunk 의 DELETE 소요시간만큼(배수) 쉬고, 느려지면 chunk 를 줄이고 빠르면 늘린다
+ * - 진행 위치는 result_purge_checkpoint 에 chunk 와 같은 트랜잭션으로 남겨, 죽었다 떠도 이어서 지운다
+ * 진행률(rows/sec, 남은 건수 추정)은 /actuator/resultpurge 로 본다.
+ */
+@Slf4j
+@Component
+public class ResultPurgeJob {
+    private static final String JOB = "health_check_result";
+    private static final String LOCK_KEY = "uptime:results:purge:lock";
+    private static final Duration LOCK_TTL = Duration.ofMinutes(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redis;
+
+    private final int minChunk;
+    private final int maxChunk;
+    private final long targetChunkMs;
+    private final double pauseFactor;
+    private final long maxPauseMs;
+
+    private final Object stateLock = new Object();
+    private volatile Thread worker;
+    private volatile Progress progress;
+
+    public ResultPurgeJob(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          StringRedisTemplate redis,
+                          @Value("${uptime.results.purge.minChunk:500}") int minChunk,
+                          @Value("${uptime.results.purge.maxChunk:20000}") int maxChunk,
+                          @Value("${uptime.results.purge.targetChunkMs:200}") long targetChunkMs,
+                          @Value("${uptime.results.purge.pauseFactor:1.0}") double pauseFactor,
+                          @Value("${uptime.results.purge.maxPauseMs:5000}") long maxPauseMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.redis = redis;
+        this.minChunk = minChunk;
+        this.maxChunk = maxChunk;
+        this.targetChunkMs = targetChunkMs;
+        this.pauseFactor = pauseFactor;
+        this.maxPauseMs = maxPauseMs;
+    }
+
+    // 중간에 죽은 작업이 있으면 같은 cutoff 로 이어서
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeIfInterrupted() {
+        try {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT cutoff, next_id, deleted FROM result_purge_checkpoint WHERE job = ? AND status = 'RUNNING'", JOB);
+            if (rows.isEmpty()) return;
+            Map<String, Object> row = rows.get(0);
+            LocalDateTime cutoff = ((Timestamp) row.get("cutoff")).toLocalDateTime();
+            log.info("Resuming interrupted purge cutoff={} nextId={} deleted={}", cutoff, row.get("next_id"), row.get("deleted"));
+            start(cutoff);
+        } catch (Exception e) {
+            log.warn("Purge checkpoint lookup failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * 백그라운드로 정리 시작. 노드 간 락을 먼저 잡고 스레드를 띄우므로,
+     * 이 노드나 다른 노드에서 이미 돌고 있거나 락을 못 잡으면 false.
+     */
+    public boolean start(LocalDateTime cutoff) {
+        synchronized (stateLock) {
+            if (worker != null && worker.isAlive()) return false;
+            String token;
+            try {
+                token = RedisLocks.tryAcquire(redis, LOCK_KEY, LOCK_TTL);
+            } catch (Exception e) {
+                log.warn("Purge lock acquire failed: {}", e.toString());
+                return false;
+            }
+            if (token == null) {
+                log.info("Purge already running on another node, skip");
+                return false;
+            }
+            worker = new Thread(() -> run(cutoff, token), "result-purge");
+            worker.setDaemon(true);
+            worker.start();
+            return true;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread t = worker;
+        if (t != null) t.interrupt();
+    }
+
+    public Map<String, Object> status() {
+        Progress p = progress;
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("running", worker != null && worker.isAlive());
+        if (p == null) return m;
+        m.put("cutoff", p.cutoff.toString());
+        m.put("startedAt", p.startedAt.toString());
+        m.put("nextId", p.nextId);
+        m.put("boundaryId", p.boundaryId);
+        m.put("deleted", p.deleted);
+        m.put("remainingEstimate", Math.max(0, p.boundaryId - p.nextId));
+        m.put("chunkSize", p.chunkSize);
+        m.put("lastChunkMs", p.lastChunkMs);
+        m.put("lastPauseMs", p.lastPauseMs);
+        m.put("rowsPerSec", p.rowsPerSec());
+        return m;
+    }
+
+    // 락은 start() 에서 잡아 넘겨받고, 끝나면 여기서 놓는다
+    private void run(LocalDateTime cutoff, String token) {
+        MDC.put(CorrelationIdFilter.MDC_KEY, "purge-" + token.substring(0, 8));
+        try {
+            purge(cutoff, token);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            log.info("Purge interrupted, will resume from checkpoint");
+        } catch (Exception e) {
+            log.error("Purge failed cutoff={}, will resume from checkpoint", cutoff, e);
+        } finally {
+            RedisLocks.release(redis, LOCK_KEY, token);
+            MDC.remove(CorrelationIdFilter.MDC_KEY);
+        }
+    }
+
+    private void purge(LocalDateTime cutoff, String token) throws InterruptedException {
+        Timestamp cutoffTs = Timestamp.valueOf(cutoff);
+        Long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM health_check_result", Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM health_check_result", Long.class);
+        if (minId == null) {
+            finish(cutoffTs, 0, 0);
+            return;
+        }
+
+        // 같은 cutoff 로 돌다 멈춘 기록이 있으면 거기서부터 (그보다 앞은 이미 지워짐)
+        long lo = minId;
+        long deleted = 0;
+        List<Map<String, Object>> cp = jdbcTemplate.queryForList(
+                "SELECT next_id, deleted FROM result_purge_checkpoint WHERE job = ? AND status = 'RUNNING' AND cutoff = ?",
+                JOB, cutoffTs);
+        if (!cp.isEmpty()) {
+            lo = Math.max(lo, ((Number) cp.get(0).get("next_id")).longValue());
+            deleted = ((Number) cp.get(0).get("deleted")).longValue();
+        }
+        saveCheckpoint(cutoffTs, lo, deleted, "RUNNING");
+
+        // 남은 양 추정용: cutoff 이후 첫 행의 id (observed_at 은 id 순서와 거의 같이 증가)
+        Long boundary = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM health_check_result WHERE id >= ? AND observed_at >= ?", Long.class, lo, cutoffTs);
+        Progress p = new Progress(cutoff, lo, boundary == null ? maxId + 1 : boundary, deleted, minChunk);
+        progress = p;
+        log.info("Purge start cutoff={} fromId={} boundaryId={}", cutoff, lo, p.boundaryId);
+
+        while (lo <= maxId) {
+            if (Thread.currentThread().isInterrupted()) throw new InterruptedException();
+            long from = lo;
+            long to = lo + p.chunkSize;
+            long deletedSoFar = p.deleted;
+
+            long t0 = System.nanoTime();
+            int n = transactionTemplate.execute(tx -> {
+                int rows = jdbcTemplate.update(
+                        "DELETE FROM health_check_result WHERE id >= ? AND id < ? AND observed_at < ?", from, to, cutoffTs);
+                saveCheckpoint(cutoffTs, to, deletedSoFar + rows, "RUNNING");
+                return rows;
+            });
+            long chunkMs = (System.nanoTime() - t0) / 1_000_000;
+            p.advance(to, n, chunkMs);
+            if (!RedisLocks.extend(redis, LOCK_KEY, token, LOCK_TTL)) {
+                throw new IllegalStateException("Purge lock lost at id=" + to);
+            }
+
+            // 구간에 행은 있는데 지울 게 없으면 cutoff 이후 데이터에 도달한 것
+            if (n == 0 && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS(SELECT 1 FROM health_check_result WHERE id >= ? AND id < ?)", Boolean.class, from, to))) {
+                break;
+            }
+            lo = to;
+
+            // 느리면 chunk 를 절반으로, 여유 있으면 1.5배로. 쉬는 시간은 DB 가 방금 쓴 시간에 비례
+            p.chunkSize = chunkMs > targetChunkMs
+                    ? Math.max(minChunk, p.chunkSize / 2)
+                    : Math.min(maxChunk, p.chunkSize + p.chunkSize / 2);
+            p.lastPauseMs = Math.min(maxPauseMs, (long) (chunkMs * pauseFactor));
+            if (p.lastPauseMs > 0) Thread.sleep(p.lastPauseMs);
+        }
+
+        finish(cutoffTs, lo, p.deleted);
+        log.info("Purge done cutoff={} deleted={} rowsPerSec={}", cutoff, p.deleted, p.rowsPerSec());
+    }
+
+    private void finish(Timestamp cutoff, long nextId, long deleted) {
+        saveCheckpoint(cutoff, nextId, deleted, "DONE");
+    }
+
+    private void saveCheckpoint(Timestamp cutoff, long nextId, long deleted, String status) {
+        jdbcTemplate.update(
+                "INSERT INTO result_purge_checkpoint (job, cutoff, next_id, deleted, status, updated_at) VALUES (?, ?, ?, ?, ?, NOW()) " +
+                "ON DUPLICATE KEY UPDATE cutoff = VALUES(cutoff), next_id = VALUES(next_id), deleted = VALUES(deleted), " +
+                "status = VALUES(status), updated_at = VALUES(updated_at)",
+                JOB, cutoff, nextId, deleted, status);
+    }
+
+    private static final class Progress {
+        final LocalDateTime cutoff;
+        final Instant startedAt = Instant.now();
+        final long startNs = System.nanoTime();
+        final long boundaryId;
+        final long deletedAtStart;
+        volatile long nextId;
+        volatile long deleted;
+        volatile int chunkSize;
+        volatile long lastChunkMs;
+        volatile long lastPauseMs;
+
+        Progress(LocalDateTime cutoff, long nextId, long boundaryId, long deleted, int chunkSize) {
+            this.cutoff = cutoff;
+            this.nextId = nextId;
+            this.boundaryId = boundaryId;
+            this.deleted = deleted;
+            this.deletedAtStart = deleted;
+            this.chunkSize = chunkSize;
+        }
+
+        void advance(long nextId, int rows, long chunkMs) {
+            this.nextId = nextId;
+            this.deleted += rows;
+            this.lastChunkMs = chunkMs;
+        }
+
+        // 이번 실행 기준 (쉬는 시간 포함)
+        long rowsPerSec() {
+            long elapsedMs = Math.max(1, (System.nanoTime() - startNs) / 1_000_000);
+            return (deleted - deletedAtStart) * 1000 / elapsedMs;
+        }
+    }
+}
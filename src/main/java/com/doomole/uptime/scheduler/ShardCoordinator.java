@@ -0,0 +1,197 @@
+package com.doomole.uptime.scheduler;
+
+import com.doomole.uptime.utils.CommonUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 여러 노드가 모니터를 나눠 갖도록 하는 Redis 기반 샤드 리스 관리자.
+ * - 모니터 id → 고정 샤드(shards 개), 샤드 → 살아있는 노드(consistent hashing, vnode)
+ * - 노드는 heartbeat 마다 자기 몫의 샤드 리스(SET NX PX)를 획득/연장하고, 자기 몫이 아닌 리스는 반납한다
+ * - 리스를 가진 샤드만 프로브하므로 재분배 중에도 같은 모니터를 두 노드가 동시에 치지 않는다
+ * uptime.cluster.enabled=false(기본)면 단일 노드로 모든 샤드를 소유한다.
+ */
+@Slf4j
+@Component
+public class ShardCoordinator {
+    private static final String NODES_KEY = "uptime:cluster:nodes";
+    private static final String SHARD_KEY_PREFIX = "uptime:cluster:shard:";
+    private static final int VNODES = 64;
+
+    // 내 리스면 연장, 비어 있으면 획득. 소유 시 1
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "  redis.call('pexpire', KEYS[1], ARGV[2]) return 1 " +
+            "elseif redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return 1 " +
+            "else return 0 end", Long.class);
+
+    private final StringRedisTemplate redis;
+    private final boolean enabled;
+    private final int shards;
+    private final long leaseTtlMs;
+    private final String nodeId;
+
+    private volatile BitSet owned;
+    private volatile List<String> liveNodes = List.of();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ShardCoordinator(StringRedisTemplate redis,
+                            @Value("${uptime.cluster.enabled:false}") boolean enabled,
+                            @Value("${uptime.cluster.shards:64}") int shards,
+                            @Value("${uptime.cluster.leaseTtlMs:15000}") long leaseTtlMs,
+                            @Value("${uptime.cluster.nodeId:}") String nodeId) {
+        this.redis = redis;
+        this.enabled = enabled;
+        this.shards = shards;
+        this.leaseTtlMs = leaseTtlMs;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+
+        this.owned = new BitSet(shards);
+        if (!enabled) owned.set(0, shards);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** 이 노드가 해당 모니터를 프로브해야 하는지 */
+    public boolean owns(Long monitorId) {
+        if (!enabled) return true;
+        return owned.get(shardOf(monitorId));
+    }
+
+    /** 소유 샤드 집합이 바뀔 때마다 증가 (노드 로컬 캐시 무효화 판단용) */
+    public long generation() {
+        return generation.get();
+    }
+
+    public int shardOf(Long monitorId) {
+        return (int) Math.floorMod(CommonUtil.mix64(monitorId), (long) shards);
+    }
+
+    @Scheduled(fixedDelayString = "${uptime.cluster.heartbeatMs:5000}", initialDelay = 0)
+    public void heartbeat() {
+        if (!enabled) return;
+        try {
+            long now = System.currentTimeMillis();
+
+            // 1) 멤버십: 내 heartbeat 기록 + 만료된 노드 정리
+            redis.opsForZSet().add(NODES_KEY, nodeId, now);
+            redis.opsForZSet().removeRangeByScore(NODES_KEY, 0, now - leaseTtlMs);
+            Set<String> members = redis.opsForZSet().rangeByScore(NODES_KEY, now - leaseTtlMs, Double.MAX_VALUE);
+            List<String> nodes = members == null ? List.of(nodeId) : new ArrayList<>(members);
+            if (!nodes.contains(nodeId)) nodes.add(nodeId);
+            nodes.sort(String::compareTo);
+
+            // 2) 내 몫 샤드 리스 획득/연장, 남의 몫은 반납
+            NavigableMap<Long, String> ring = ring(nodes);
+            BitSet next = new BitSet(shards);
+            String ttl = String.valueOf(leaseTtlMs);
+            for (int shard = 0; shard < shards; shard++) {
+                String key = SHARD_KEY_PREFIX + shard;
+                if (nodeId.equals(ownerOf(ring, shard))) {
+                    Long got = redis.execute(ACQUIRE, List.of(key), nodeId, ttl);
+                    if (got != null && got == 1L) next.set(shard);
+                } else if (owned.get(shard)) {
+                    RedisLocks.release(redis, key, nodeId);
+                }
+            }
+
+            if (!next.equals(owned) || !nodes.equals(liveNodes)) {
+                log.info("Shard rebalance node={} liveNodes={} owned={}/{}", nodeId, nodes, next.cardinality(), shards);
+            }
+            liveNodes = List.copyOf(nodes);
+            if (!next.equals(owned)) generation.incrementAndGet();
+            owned = next;
+        } catch (Exception e) {
+            // Redis 장애 시 리스가 만료될 수 있으므로 보수적으로 모든 샤드를 내려놓는다
+            log.error("Shard heartbeat failed node={}, releasing local ownership: {}", nodeId, e.toString());
+            if (!owned.isEmpty()) generation.incrementAndGet();
+            owned = new BitSet(shards);
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!enabled) return;
+        try {
+            for (int shard = owned.nextSetBit(0); shard >= 0; shard = owned.nextSetBit(shard + 1)) {
+                RedisLocks.release(redis, SHARD_KEY_PREFIX + shard, nodeId);
+            }
+            redis.opsForZSet().remove(NODES_KEY, nodeId);
+            log.info("Left cluster node={}", nodeId);
+        } catch (Exception e) {
+            log.warn("Leave cluster failed node={}: {}", nodeId, e.toString());
+        }
+    }
+
+    public Map<String, Object> status() {
+        return Map.of(
+                "enabled", enabled,
+                "nodeId", nodeId,
+                "liveNodes", liveNodes,
+                "shards", shards,
+                "ownedShards", owned.cardinality()
+        );
+    }
+
+    private NavigableMap<Long, String> ring(List<String> nodes) {
+        NavigableMap<Long, String> ring = new TreeMap<>();
+        for (String node : nodes) {
+            for (int v = 0; v < VNODES; v++) {
+                ring.put(hash(node + "#" + v), node);
+            }
+        }
+        return ring;
+    }
+
+    private String ownerOf(NavigableMap<Long, String> ring, int shard) {
+        Map.Entry<Long, String> e = ring.ceilingEntry(hash("shard-" + shard));
+        return (e != null ? e : ring.firstEntry()).getValue();
+    }
+
+    private static long hash(String s) {
+        try {
+            byte[] d = MessageDigest.getInstance("MD5").digest(s.getBytes(StandardCharsets.UTF_8));
+            long h = 0;
+            for (int i = 0; i < 8; i++) h = (h << 8) | (d[i] & 0xff);
+            return h;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
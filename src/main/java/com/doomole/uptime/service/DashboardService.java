@@ -0,0 +1,133 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.HealthCheckChangedEvent;
+import com.doomole.uptime.domain.MonitorDescriptor;
+import com.doomole.uptime.domain.WindowStats;
+import com.doomole.uptime.dto.DashboardMonitorResponse;
+import com.doomole.uptime.dto.DashboardResponse;
+import com.doomole.uptime.dto.HealthCheckResultResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 대시보드 한 화면(전체 모니터 + 최신 상태 + 1h/24h 가동률)을 한 번에 만든다.
+ * 레지스트리·링버퍼·슬라이딩 window 메모리에서 조립하고, 링버퍼에 최신 결과가 없는 모니터
+ * (다른 노드 샤드, 재시작 직후)만 health_check 상태 컬럼을 한 번의 쿼리로 읽는다.
+ * 결과는 캐시해 두고 프로브 주기(가장 짧은 모니터 주기)당 최대 한 번만 다시 만든다. 모니터 변경 시엔 바로 버린다.
+ */
+@Service
+public class DashboardService {
+    private final MonitorRegistry monitorRegistry;
+    private final RecentResultBuffer recentResultBuffer;
+    private final SlidingWindowStats slidingWindowStats;
+    private final JdbcTemplate jdbcTemplate;
+    private final long minRefreshMs;
+    private final long maxRefreshMs;
+
+    private volatile Cached cached;
+
+    public DashboardService(MonitorRegistry monitorRegistry,
+                            RecentResultBuffer recentResultBuffer,
+                            SlidingWindowStats slidingWindowStats,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${uptime.dashboard.minRefreshMs:1000}") long minRefreshMs,
+                            @Value("${uptime.dashboard.maxRefreshMs:60000}") long maxRefreshMs) {
+        this.monitorRegistry = monitorRegistry;
+        this.recentResultBuffer = recentResultBuffer;
+        this.slidingWindowStats = slidingWindowStats;
+        this.jdbcTemplate = jdbcTemplate;
+        this.minRefreshMs = minRefreshMs;
+        this.maxRefreshMs = maxRefreshMs;
+    }
+
+    public DashboardResponse get() {
+        long now = System.currentTimeMillis();
+        Cached c = cached;
+        if (c != null && now < c.expiresAtMs) return c.response;
+        synchronized (this) {
+            c = cached;
+            if (c != null && now < c.expiresAtMs) return c.response; // 기다리는 동안 다른 요청이 만듦
+            DashboardResponse response = build();
+            cached = new Cached(response, now + refreshMs());
+            return response;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHealthCheckChanged(HealthCheckChangedEvent event) {
+        cached = null;
+    }
+
+    private DashboardResponse build() {
+        List<MonitorDescriptor> monitors = monitorRegistry.sorted();
+        Map<Long, HealthCheckResultResponse> latest = new HashMap<>(monitors.size() * 2);
+        boolean missing = false;
+        for (MonitorDescriptor m : monitors) {
+            var r = recentResultBuffer.latest(m.id());
+            if (r.isPresent()) latest.put(m.id(), r.get());
+            else missing = true;
+        }
+        Map<Long, StoredState> stored = missing ? loadStoredStates() : Map.of();
+
+        List<DashboardMonitorResponse> items = new ArrayList<>(monitors.size());
+        for (MonitorDescriptor m : monitors) {
+            SlidingWindowStats.Snapshot s = slidingWindowStats.get(m.id());
+            WindowStats hour = s == null ? WindowStats.EMPTY : s.hour();
+            WindowStats day = s == null ? WindowStats.EMPTY : s.day();
+
+            HealthCheckResultResponse r = latest.get(m.id());
+            StoredState st = stored.get(m.id());
+            String status = r != null ? r.status().name() : st != null ? st.status : "UNKNOWN";
+            LocalDateTime checkedAt = r != null ? r.observedAt() : st != null ? st.lastCheckedAt : null;
+            Integer latency = r != null ? r.latencyMs() : st != null ? st.responseTimeMs : null;
+            Integer httpCode = r != null ? r.httpCode() : null; // health_check 엔 HTTP 코드가 없다
+
+            items.add(new DashboardMonitorResponse(m.id(), m.name(), m.type().name(), m.url(), m.intervalSeconds(),
+                    m.enabled(), status, checkedAt, latency, httpCode,
+                    round1(hour.uptimePercent()), round1(day.uptimePercent()), round1(day.avgLatencyMs())));
+        }
+        return new DashboardResponse(LocalDateTime.now(), items);
+    }
+
+    // 최신 상태는 ResultBatchWriter 가 배치마다 health_check 에 반영해 둔다
+    private Map<Long, StoredState> loadStoredStates() {
+        Map<Long, StoredState> map = new HashMap<>();
+        jdbcTemplate.query("SELECT id, status, last_checked_at, response_time_ms FROM health_check", rs -> {
+            Timestamp checkedAt = rs.getTimestamp("last_checked_at");
+            map.put(rs.getLong("id"), new StoredState(
+                    rs.getString("status"),
+                    checkedAt == null ? null : checkedAt.toLocalDateTime(),
+                    rs.getObject("response_time_ms", Integer.class)));
+        });
+        return map;
+    }
+
+    // 가장 짧은 프로브 주기 (그 안에는 새 결과가 한 건도 없을 수 있다)
+    private long refreshMs() {
+        long min = monitorRegistry.enabled().stream()
+                .mapToLong(m -> m.intervalSeconds() * 1000L)
+                .min().orElse(maxRefreshMs);
+        return Math.max(minRefreshMs, Math.min(maxRefreshMs, min));
+    }
+
+    private static double round1(double v) {
+        return Math.round(v * 10.0) / 10.0;
+    }
+
+    private static Double round1(Double v) {
+        return v == null ? null : Math.round(v * 10.0) / 10.0;
+    }
+
+    private record Cached(DashboardResponse response, long expiresAtMs) {}
+
+    private record StoredState(String status, LocalDateTime lastCheckedAt, Integer responseTimeMs) {}
+}
@@ -1,37 +1,73 @@
 package com.doomole.uptime.service;
 
 import com.doomole.uptime.domain.CheckType;
+import com.doomole.uptime.domain.HealthCheckChangedEvent;
 import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.domain.LatencyHistogram;
+import com.doomole.uptime.domain.LatencyPercentiles;
+import com.doomole.uptime.domain.MonitorDescriptor;
+import com.doomole.uptime.domain.ResultCursor;
+import com.doomole.uptime.domain.RollupTotals;
+import com.doomole.uptime.domain.WindowStats;
 import com.doomole.uptime.dto.HealthCheckRequest;
 import com.doomole.uptime.dto.HealthCheckResponse;
 import com.doomole.uptime.dto.HealthCheckResultResponse;
 import com.doomole.uptime.dto.HealthCheckSummaryResponse;
+import com.doomole.uptime.dto.IncidentResponse;
+import com.doomole.uptime.dto.LatencyPercentileResponse;
+import com.doomole.uptime.dto.LiveStatsResponse;
+import com.doomole.uptime.dto.ProbeResult;
+import com.doomole.uptime.dto.ReliabilityResponse;
+import com.doomole.uptime.dto.ResultPageResponse;
 import com.doomole.uptime.entity.HealthCheck;
 import com.doomole.uptime.entity.HealthCheckResult;
 import com.doomole.uptime.exception.ClientErrorException;
 import com.doomole.uptime.repo.HealthCheckRepo;
 import com.doomole.uptime.repo.HealthCheckResultRepo;
+import com.doomole.uptime.repo.IncidentRepo;
+import com.doomole.uptime.repo.ResultQueryRepo;
+import com.doomole.uptime.repo.ResultRollupRepo;
+import com.doomole.uptime.repo.ResultRunRepo;
+import com.doomole.uptime.repo.ResultRollupRepo.Grain;
 import com.doomole.uptime.utils.CommonUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 public class HealthCheckService {
+    private static final Pattern WINDOW = Pattern.compile("(\\d{1,4})([mhd])");
+    private static final Duration MAX_WINDOW = Duration.ofDays(366);
+
     private final HealthCheckRepo healthCheckRepo;
-    private final WebClient webClient;
     private final HealthCheckResultRepo healthCheckResultRepo;
-
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ResultRollupRepo resultRollupRepo;
+    private final ResultQueryRepo resultQueryRepo;
+    private final ResultRunRepo resultRunRepo;
+    private final IncidentRepo incidentRepo;
+    private final IncidentTracker incidentTracker;
+    private final ResultBatchWriter resultBatchWriter;
+    private final RecentResultBuffer recentResultBuffer;
+    private final SlidingWindowStats slidingWindowStats;
+    private final ResultArchive resultArchive;
+    private final MonitorRegistry monitorRegistry;
+
+    private final HealthEventBroadcaster healthEventBroadcaster;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${uptime.rollup.minuteRetentionDays:2}")
+    private int minuteRetentionDays;
 
     public HealthCheckResponse addHealthCheck(HealthCheckRequest request) {
         String url = CommonUtil.normalizeUrl(request.url());
@@ -43,13 +79,16 @@ public class HealthCheckService {
             throw new ClientErrorException("HTTP 체크는 http/https URL만 허용됩니다.");
         }
 
+        validateThreshold(request.thresholdN() == null ? 1 : request.thresholdN(),
+                request.windowM() == null ? 3 : request.windowM());
+
         HealthCheck healthCheck = healthCheckRepo.save(HealthCheck.builder()
                 .name(request.name())
                 .type(request.type() == null ? CheckType.HTTP : request.type())
                 .url(url)
                 .intervalSeconds(request.intervalSeconds())
-                .thresholdN(1)
-                .windowM(3)
+                .thresholdN(request.thresholdN() == null ? 1 : request.thresholdN())
+                .windowM(request.windowM() == null ? 3 : request.windowM())
                 .enabled(true)
                 .status(HealthStatus.UNKNOWN)
                 .failCount(0)
@@ -59,6 +98,7 @@ public class HealthCheckService {
                 .createdAt(LocalDateTime.now())
                 .build()
         );
+        eventPublisher.publishEvent(HealthCheckChangedEvent.saved(MonitorDescriptor.from(healthCheck)));
 
         return new HealthCheckResponse(healthCheck.getId(), healthCheck.getName(), healthCheck.getType().name(), healthCheck.getUrl(), healthCheck.getIntervalSeconds(), healthCheck.isEnabled());
     }
@@ -84,9 +124,11 @@ public class HealthCheckService {
         if (request.thresholdN() != null) healthCheck.setThresholdN(request.thresholdN());
         if (request.windowM() != null) healthCheck.setWindowM(request.windowM());
         if (request.enabled() != null) healthCheck.setEnabled(request.enabled());
+        validateThreshold(healthCheck.getThresholdN(), healthCheck.getWindowM());
 
         healthCheck.setUpdatedAt(java.time.LocalDateTime.now());
         healthCheckRepo.save(healthCheck);
+        eventPublisher.publishEvent(HealthCheckChangedEvent.saved(MonitorDescriptor.from(healthCheck)));
 
         return new HealthCheckResponse(healthCheck.getId(), healthCheck.getName(), healthCheck.getType().name(),
                 healthCheck.getUrl(), healthCheck.getIntervalSeconds(), healthCheck.isEnabled());
@@ -97,61 +139,113 @@ public class HealthCheckService {
             throw new ClientErrorException("대상을 찾을 수 없습니다: " + id);
         }
         healthCheckRepo.deleteById(id);
+        eventPublisher.publishEvent(HealthCheckChangedEvent.deleted(id));
     }
 
+    // 목록은 레지스트리(메모리)에서 바로 응답
     public List<HealthCheckResponse> getHealthCheckList() {
-        return healthCheckRepo.findAll().stream()
-                .map(healthCheck -> new HealthCheckResponse(healthCheck.getId(), healthCheck.getName(), healthCheck.getType().name(),
-                        healthCheck.getUrl(), healthCheck.getIntervalSeconds(), healthCheck.isEnabled()))
+        return monitorRegistry.sorted().stream()
+                .map(m -> new HealthCheckResponse(m.id(), m.name(), m.type().name(),
+                        m.url(), m.intervalSeconds(), m.enabled()))
                 .toList();
     }
 
+    // 링버퍼 용량 이내면 메모리에서, 아니면 DB 에서
     public List<HealthCheckResultResponse> getHealthCheckResultRecent(Long healthCheckId, int limit) {
-        var list = healthCheckResultRepo.findByHealthCheck_IdOrderByObservedAtDesc(
-                healthCheckId, org.springframework.data.domain.PageRequest.of(0, Math.min(limit, 500))
-        );
-        return list.stream()
-                .map(r -> new HealthCheckResultResponse(
-                        r.getId(),
-                        r.getObservedAt(),
-                        r.getHealthStatus(),
-                        r.getHttpCode(),
-                        r.getLatencyMs(),
-                        r.getErrorMessage()
-                ))
-                .toList();
+        int size = Math.min(limit, 500);
+        return recentResultBuffer.recent(healthCheckId, size)
+                .orElseGet(() -> findRecentStored(healthCheckId, size));
     }
 
-    @Transactional(readOnly = true)
-    public HealthCheckSummaryResponse getHealthCheckSummary(Long healthCheckId, String window) {
-        LocalDateTime from = switch (window) {
-            case "1h"  -> LocalDateTime.now().minusHours(1);
-            case "24h" -> LocalDateTime.now().minusHours(24);
-            default    -> throw new ClientErrorException("window 값은 1h 또는 24h만 허용됩니다.");
-        };
+    /**
+     * 결과 이력 keyset 페이지 (최신순). cursor 는 직전 응답의 nextCursor.
+     * offset 없이 (observed_at, id) 위치부터 읽으므로 몇 번째 페이지든 비용이 같고, DB 가 끝나면 아카이브로 이어진다.
+     */
+    public ResultPageResponse getHealthCheckResultPage(Long healthCheckId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, 1000));
+        ResultCursor after = parseCursor(cursor);
+        List<HealthCheckResultResponse> items = new ArrayList<>(resultQueryRepo.page(healthCheckId, after, size));
+        if (items.size() < size && resultArchive.isEnabled()) {
+            LocalDateTime before = !items.isEmpty() ? items.get(items.size() - 1).observedAt()
+                    : after != null ? after.observedAt() : LocalDateTime.now();
+            items.addAll(resultArchive.recent(healthCheckId, size - items.size(), before));
+        }
 
-        long total = healthCheckResultRepo.countByHealthCheck_IdAndObservedAtGreaterThanEqual(healthCheckId, from);
-        long up    = healthCheckResultRepo.countByHealthCheck_IdAndHealthStatusAndObservedAtGreaterThanEqual(
-                healthCheckId, HealthStatus.UP, from
-        );
+        String next = null;
+        if (items.size() >= size) {
+            HealthCheckResultResponse last = items.get(items.size() - 1);
+            next = new ResultCursor(last.observedAt(), last.id()).encode();
+        }
+        return new ResultPageResponse(items, next);
+    }
+
+    private static ResultCursor parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            return ResultCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ClientErrorException("cursor 가 올바르지 않습니다.");
+        }
+    }
+
+    // DB 에 모자라면(오래된 날은 아카이브로 옮겨짐) 아카이브 파일에서 이어 붙인다
+    private List<HealthCheckResultResponse> findRecentStored(Long healthCheckId, int limit) {
+        if (resultRunRepo.isEnabled()) return resultRunRepo.recent(healthCheckId, limit); // run 을 펼쳐서
+        List<HealthCheckResultResponse> rows = healthCheckResultRepo.findRecent(healthCheckId, limit)
+                .stream()
+                .map(HealthCheckService::toResultResponse)
+                .toList();
+        if (rows.size() >= limit || !resultArchive.isEnabled()) return rows;
+
+        LocalDateTime before = rows.isEmpty() ? LocalDateTime.now() : rows.get(rows.size() - 1).observedAt();
+        List<HealthCheckResultResponse> merged = new ArrayList<>(rows);
+        merged.addAll(resultArchive.recent(healthCheckId, limit - rows.size(), before));
+        return merged;
+    }
 
-        // JPA 메서드로 avg 직접 구하는 건 없으니, 최근 window 범위의 결과를 직접 불러서 평균 내면 돼
-        var results = healthCheckResultRepo.findByHealthCheck_IdOrderByObservedAtDesc(
-                healthCheckId, org.springframework.data.domain.PageRequest.of(0, Math.min((int) total, 1000))
+    private static HealthCheckResultResponse toResultResponse(HealthCheckResult r) {
+        return new HealthCheckResultResponse(
+                r.getId(),
+                r.getObservedAt(),
+                r.getHealthStatus(),
+                r.getHttpCode(),
+                r.getLatencyMs(),
+                r.getErrorMessage(),
+                r.getDnsMs(),
+                r.getConnectMs(),
+                r.getTlsMs(),
+                r.getTtfbMs()
         );
-        Double avgLatency = results.isEmpty() ? null :
-                results.stream()
-                        .map(r -> r.getLatencyMs())
-                        .filter(Objects::nonNull)
-                        .mapToInt(Integer::intValue)
-                        .average()
-                        .orElse(Double.NaN);
+    }
 
-        double uptimePercent = (total == 0) ? 0.0 : (up * 100.0 / total);
+    /**
+     * 가동률/평균지연/분위수 요약. 1h/24h 는 슬라이딩 window 스냅샷(메모리)에서 바로 답하고(DB 조회 없음),
+     * 그 외 window 는 분/시간 롤업만 읽어서 window 길이와 무관하게 합계·히스토그램 각각 최대 3회 조회로 끝난다.
+     * window: 숫자 + m|h|d (예: 15m, 1h, 24h, 7d, 90d), 최대 366d
+     */
+    public HealthCheckSummaryResponse getHealthCheckSummary(Long healthCheckId, String window) {
+        Duration span = parseWindow(window);
+        LocalDateTime now = LocalDateTime.now();
+        WindowStats stats;
+        LatencyPercentiles latency;
+        LiveWindow live = liveWindow(healthCheckId, span);
+        if (live != null) {
+            stats = live.stats();
+            latency = live.latency();
+        } else {
+            RollupTotals totals = sumRollups(healthCheckId, now.minus(span), now);
+            stats = new WindowStats(totals.getTotal(), totals.getUp(), totals.getLatencyCount(),
+                    totals.getLatencySum(), totals.getLatencyMin(), totals.getLatencyMax());
+            latency = mergeHistograms(healthCheckId, now.minus(span), now).percentiles();
+        }
 
-        var latest = healthCheckResultRepo.findTop1ByHealthCheck_IdOrderByObservedAtDesc(healthCheckId);
-        String latestStatus = (latest == null) ? "UNKNOWN" : latest.getHealthStatus().name();
-        Integer latestHttp  = (latest == null) ? null : latest.getHttpCode();
+        Double avgLatency = stats.avgLatencyMs();
+        double uptimePercent = stats.uptimePercent();
+
+        // 최신 상태도 링버퍼에서 (트랜잭션 없이 읽으므로 메모리 경로는 DB 커넥션을 잡지 않는다)
+        var latest = getHealthCheckResultRecent(healthCheckId, 1).stream().findFirst().orElse(null);
+        String latestStatus = (latest == null) ? "UNKNOWN" : latest.status().name();
+        Integer latestHttp  = (latest == null) ? null : latest.httpCode();
 
         return new HealthCheckSummaryResponse(
                 healthCheckId,
@@ -159,82 +253,198 @@ public class HealthCheckService {
                 Math.round(uptimePercent * 10.0) / 10.0,
                 avgLatency == null ? null : Math.round(avgLatency * 10.0) / 10.0,
                 latestStatus,
-                latestHttp
+                latestHttp,
+                stats.checks(),
+                stats.latencyMin(),
+                stats.latencyMax(),
+                latency.p50(),
+                latency.p90(),
+                latency.p95(),
+                latency.p99()
         );
     }
 
-    @Transactional
-    public void runOneCheck(HealthCheck healthCheck, LocalDateTime now) {
-        if (!healthCheck.isEnabled()) return; // 🔹비활성 스킵
+    /**
+     * 지연 분위수. 롤업의 로그 버킷 히스토그램을 병합해서 구한다(원본 결과는 읽지 않음, 오차 약 6%).
+     */
+    public LatencyPercentileResponse getLatencyPercentiles(Long healthCheckId, String window) {
+        Duration span = parseWindow(window);
+        LocalDateTime now = LocalDateTime.now();
+        LatencyHistogram histogram = mergeHistograms(healthCheckId, now.minus(span), now);
+        RollupTotals totals = sumRollups(healthCheckId, now.minus(span), now);
+
+        return new LatencyPercentileResponse(
+                healthCheckId,
+                window,
+                histogram.count(),
+                histogram.percentile(0.50),
+                histogram.percentile(0.90),
+                histogram.percentile(0.95),
+                histogram.percentile(0.99),
+                totals.getLatencyMax() // 최대값은 롤업의 정확값
+        );
+    }
+
+    /** 최근 incident (최신순) */
+    public List<IncidentResponse> getIncidents(Long healthCheckId, int limit) {
+        return incidentRepo.findRecent(healthCheckId, Math.max(1, Math.min(limit, 500)));
+    }
 
-        if (healthCheck.getType() != CheckType.HTTP) {
-            return;
+    /**
+     * window 안의 장애 통계 (incident 테이블만 읽음). healthCheckId 가 null 이면 활성 모니터 전체 합산.
+     * MTTR = window 안에서 끝난 incident 의 평균 지속시간, MTBF = 정상 가동 시간 / window 안에서 시작된 incident 수
+     */
+    public ReliabilityResponse getReliability(Long healthCheckId, String window) {
+        Duration span = parseWindow(window);
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minus(span);
+        long monitors = healthCheckId == null ? Math.max(1, monitorRegistry.enabled().size()) : 1;
+
+        long downtimeMs = 0, started = 0, repaired = 0, repairMs = 0;
+        for (IncidentResponse i : incidentRepo.findOverlapping(healthCheckId, from, to)) {
+            LocalDateTime s = i.startedAt().isBefore(from) ? from : i.startedAt();
+            LocalDateTime e = i.endedAt() == null || i.endedAt().isAfter(to) ? to : i.endedAt();
+            downtimeMs += Math.max(0, Duration.between(s, e).toMillis());
+            if (!i.startedAt().isBefore(from)) started++;
+            if (i.durationMs() != null) {
+                repaired++;
+                repairMs += i.durationMs();
+            }
         }
 
-        int httpCode = 0;
-        Integer latencyMs = null;
-        String error = null;
-        long startNs = System.nanoTime();
-        try {
-            httpCode = webClient.get()
-                    .uri(healthCheck.getUrl())
-                    .exchangeToMono(resp -> Mono.just(resp.statusCode().value()))
-                    .timeout(Duration.ofSeconds(15))
-                    .blockOptional()   // ← blockOptional() 쓰면 null 안전
-                    .orElse(0);        // 응답 없으면 0으로
-
-            latencyMs = (int) ((System.nanoTime() - startNs) / 1_000_000);
-        } catch (Exception e) {
-            latencyMs = (int) ((System.nanoTime() - startNs) / 1_000_000);
-            error = e.getMessage();
-        }
-
-        boolean up = httpCode >= 200 && httpCode < 400;
-        HealthStatus newStatus = up ? HealthStatus.UP : HealthStatus.DOWN;
-
-        // 이력 저장
-        HealthCheckResult healthCheckResult = HealthCheckResult.builder()
-                .healthCheck(healthCheck)
-                .observedAt(now)
-                .healthStatus(newStatus)
-                .latencyMs(latencyMs)
-                .httpCode(httpCode == 0 ? null : httpCode)
-                .errorMessage(error)
-                .build();
-        healthCheckResultRepo.save(healthCheckResult);
+        long totalMs = span.toMillis() * monitors;
+        long upMs = Math.max(0, totalMs - downtimeMs);
+        return new ReliabilityResponse(
+                healthCheckId,
+                window,
+                started,
+                downtimeMs,
+                Math.round(upMs * 100_000.0 / totalMs) / 1000.0,
+                repaired == 0 ? null : repairMs / repaired,
+                started == 0 ? null : upMs / started
+        );
+    }
 
-        if (newStatus == HealthStatus.DOWN) {
-            healthCheck.setFailCount(healthCheck.getFailCount() + 1);
-            healthCheck.setLastError(error);
-        } else {
-            healthCheck.setFailCount(0);
-            healthCheck.setLastError(null);
+    /** 전체 모니터의 1h/24h 가동률/평균지연 (메모리 스냅샷만 읽음) */
+    public List<LiveStatsResponse> getLiveStats() {
+        return monitorRegistry.sorted().stream()
+                .map(m -> {
+                    SlidingWindowStats.Snapshot s = slidingWindowStats.get(m.id());
+                    WindowStats hour = s == null ? WindowStats.EMPTY : s.hour();
+                    WindowStats day = s == null ? WindowStats.EMPTY : s.day();
+                    return new LiveStatsResponse(m.id(),
+                            round1(hour.uptimePercent()), round1(hour.avgLatencyMs()), hour.checks(),
+                            round1(day.uptimePercent()), round1(day.avgLatencyMs()), day.checks());
+                })
+                .toList();
+    }
+
+    // 1h/24h 이고 메모리 window 가 있으면 그 스냅샷
+    private LiveWindow liveWindow(Long healthCheckId, Duration span) {
+        SlidingWindowStats.Snapshot s;
+        if (span.equals(Duration.ofHours(1))) {
+            s = slidingWindowStats.get(healthCheckId);
+            return s == null ? null : new LiveWindow(s.hour(), s.hourLatency());
+        }
+        if (span.equals(Duration.ofHours(24)) || span.equals(Duration.ofDays(1))) {
+            s = slidingWindowStats.get(healthCheckId);
+            return s == null ? null : new LiveWindow(s.day(), s.dayLatency());
+        }
+        return null;
+    }
+
+    private record LiveWindow(WindowStats stats, LatencyPercentiles latency) {}
+
+    private static Double round1(Double v) {
+        return v == null ? null : Math.round(v * 10.0) / 10.0;
+    }
+
+    private RollupTotals sumRollups(Long healthCheckId, LocalDateTime from, LocalDateTime now) {
+        RollupTotals totals = new RollupTotals();
+        for (RollupSpan span : rollupSpans(from, now)) {
+            totals.merge(resultRollupRepo.sum(span.grain(), healthCheckId, span.from(), span.to()));
         }
-        healthCheck.setStatus(newStatus);
-        healthCheck.setLastCheckedAt(now);
-        healthCheck.setResponseTimeMs(latencyMs == null ? null : latencyMs.longValue());
-        healthCheck.setUpdatedAt(now);
+        return totals;
+    }
 
-        healthCheckRepo.save(healthCheck);
+    private LatencyHistogram mergeHistograms(Long healthCheckId, LocalDateTime from, LocalDateTime now) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (RollupSpan span : rollupSpans(from, now)) {
+            histogram.merge(resultRollupRepo.histogram(span.grain(), healthCheckId, span.from(), span.to()));
+        }
+        return histogram;
+    }
+
+    // 분 단위로 자른 [from, now] 를 앞뒤 자투리(분 롤업) + 가운데 온전한 시간(시간 롤업)으로 나눈다
+    private List<RollupSpan> rollupSpans(LocalDateTime from, LocalDateTime now) {
+        LocalDateTime start = from.truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime end = now.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1); // 진행 중인 분 포함
+        // 분 롤업 보관기간 밖이면 시작을 시간 경계로 내림 (긴 window 에서 최대 1시간 오차)
+        if (start.isBefore(now.minusDays(minuteRetentionDays))) start = start.truncatedTo(ChronoUnit.HOURS);
+
+        LocalDateTime headHour = start.truncatedTo(ChronoUnit.HOURS);
+        if (headHour.isBefore(start)) headHour = headHour.plusHours(1);
+        LocalDateTime tailHour = end.truncatedTo(ChronoUnit.HOURS);
+
+        if (!headHour.isBefore(tailHour)) {
+            return List.of(new RollupSpan(Grain.MINUTE, start, end));
+        }
+        return List.of(
+                new RollupSpan(Grain.MINUTE, start, headHour),
+                new RollupSpan(Grain.HOUR, headHour, tailHour),
+                new RollupSpan(Grain.MINUTE, tailHour, end));
+    }
+
+    private record RollupSpan(Grain grain, LocalDateTime from, LocalDateTime to) {}
+
+    // incident 판정: 최근 windowM 개 중 thresholdN 개 실패 (IncidentTracker 는 최대 64개까지 본다)
+    private static void validateThreshold(int thresholdN, int windowM) {
+        if (windowM < 1 || windowM > 64 || thresholdN < 1 || thresholdN > windowM) {
+            throw new ClientErrorException("thresholdN 은 1 이상 windowM 이하, windowM 은 1~64 만 허용됩니다.");
+        }
+    }
+
+    private static Duration parseWindow(String window) {
+        Matcher m = WINDOW.matcher(window == null ? "" : window.trim());
+        if (!m.matches()) {
+            throw new ClientErrorException("window 형식이 올바르지 않습니다. 예: 15m, 1h, 24h, 7d, 90d");
+        }
+        long n = Long.parseLong(m.group(1));
+        Duration span = switch (m.group(2)) {
+            case "m" -> Duration.ofMinutes(n);
+            case "h" -> Duration.ofHours(n);
+            default  -> Duration.ofDays(n);
+        };
+        if (span.isZero() || span.compareTo(MAX_WINDOW) > 0) {
+            throw new ClientErrorException("window 는 1m 이상 366d 이하만 허용됩니다.");
+        }
+        return span;
+    }
+
+    /**
+     * 프로브 결과 반영(이력/상태 저장 큐 적재 + WS 브로드캐스트).
+     * DB 커넥션을 잡지 않으며, 실제 저장은 ResultBatchWriter 가 모아서 flush 한다.
+     */
+    public void recordResult(ProbeResult result) {
+        resultBatchWriter.enqueue(result);
+        recentResultBuffer.append(result);
+        slidingWindowStats.record(result);
+        incidentTracker.record(result);
 
         // ✅ WS 브로드캐스트 (프론트 훅이 구독하는 채널)
         var event = com.doomole.uptime.dto.HealthCheckEvent.builder()
-                .healthCheckId(healthCheck.getId())
-                .status(newStatus.name())
-                .httpCode(httpCode == 0 ? null : httpCode)
-                .latencyMs(latencyMs)
-                .error(error)
-                .observedAt(now.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .healthCheckId(result.healthCheckId())
+                .status(result.status().name())
+                .httpCode(result.httpCode())
+                .latencyMs(result.latencyMs())
+                .error(result.error())
+                .dnsMs(result.dnsMs())
+                .connectMs(result.connectMs())
+                .tlsMs(result.tlsMs())
+                .ttfbMs(result.ttfbMs())
+                .observedAt(result.observedAt().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli())
                 .build();
 
-        messagingTemplate.convertAndSend("/topic/health/" + healthCheck.getId(), event);
-    }
-
-    // interval 충족 여부(스케줄러에서 사용)
-    public boolean shouldRun(HealthCheck healthCheck, LocalDateTime now) {
-        LocalDateTime last = healthCheck.getLastCheckedAt();
-        if (last == null) return true;
-        long elapsed = java.time.Duration.between(last, now).getSeconds();
-        return elapsed >= healthCheck.getIntervalSeconds();
+        healthEventBroadcaster.publish(event);
     }
 }
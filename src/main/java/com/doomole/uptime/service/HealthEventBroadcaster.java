@@ -0,0 +1,135 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.HealthCheckChangedEvent;
+import com.doomole.uptime.dto.DashboardMonitorResponse;
+import com.doomole.uptime.dto.HealthCheckEvent;
+import com.doomole.uptime.dto.HealthEventBatch;
+import com.doomole.uptime.dto.HealthSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 헬스 이벤트 WS 브로드캐스트.
+ * - /topic/health/{id}: 프로브마다 바로 (기존 구독 그대로)
+ * - /topic/health: tick 마다 모아서 프레임 하나로. 같은 모니터가 tick 안에 여러 번 나오면 최신 1건만
+ * 전체 대시보드는 모니터 수만큼 구독하는 대신 /topic/health 하나만 구독하면 된다.
+ * 클러스터에서는 각 노드가 자기 샤드의 이벤트만 만들므로 WsFanout 으로 다른 노드에도 보내고,
+ * 받은 노드는 자기 로컬 세션에 똑같이 전달한다 (어느 노드에 붙은 클라이언트든 전체 fleet 을 본다).
+ * 프레임마다 seq 를 붙이고 모니터별 마지막 상태를 들고 있어서, 새 구독자는 snapshot() 한 번으로 시작한다.
+ */
+@Slf4j
+@Service
+public class HealthEventBroadcaster {
+    public static final String FLEET_TOPIC = "/topic/health";
+    private static final String FANOUT_CHANNEL = "health";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final WsFanout fanout;
+    private final DashboardService dashboardService;
+    private final Counter eventCounter;
+    private final Counter frameCounter;
+    private final Counter snapshotCounter;
+
+    private final Map<Long, HealthCheckEvent> pending = new ConcurrentHashMap<>();
+    // 이 노드가 전달한 모니터별 마지막 상태 (로컬 + 다른 노드)
+    private final Map<Long, HealthEventBatch.Item> latest = new ConcurrentHashMap<>();
+    private long seq; // flush/snapshot 은 this 로 직렬화
+
+    public HealthEventBroadcaster(SimpMessagingTemplate messagingTemplate,
+                                  WsFanout fanout,
+                                  DashboardService dashboardService,
+                                  MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.fanout = fanout;
+        this.dashboardService = dashboardService;
+        this.eventCounter = meterRegistry.counter("uptime.ws.health.events");
+        this.frameCounter = meterRegistry.counter("uptime.ws.health.batches");
+        this.snapshotCounter = meterRegistry.counter("uptime.ws.health.snapshots");
+    }
+
+    @PostConstruct
+    void subscribePeers() {
+        fanout.subscribe(FANOUT_CHANNEL, HealthCheckEvent.class, this::deliverLocal);
+    }
+
+    public void publish(HealthCheckEvent event) {
+        deliverLocal(event);
+        fanout.send(FANOUT_CHANNEL, event);
+    }
+
+    // 이 노드에 붙은 세션으로 전달 (로컬 프로브 결과 + 다른 노드에서 온 결과)
+    private void deliverLocal(HealthCheckEvent event) {
+        messagingTemplate.convertAndSend(FLEET_TOPIC + "/" + event.getHealthCheckId(), event);
+        // latest 를 pending 보다 먼저: flush 로 나간 이벤트는 반드시 스냅샷에도 있다
+        latest.merge(event.getHealthCheckId(), HealthEventBatch.Item.from(event),
+                (prev, next) -> next.observedAt() >= prev.observedAt() ? next : prev);
+        pending.put(event.getHealthCheckId(), event);
+        eventCounter.increment();
+    }
+
+    @Scheduled(fixedRateString = "${uptime.ws.batchIntervalMs:250}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) return;
+        // 키 단위로 꺼내므로 꺼내는 도중 들어온 이벤트는 이번 또는 다음 tick 에 실린다 (유실 없음)
+        List<HealthEventBatch.Item> items = new ArrayList<>(pending.size());
+        for (Long id : pending.keySet()) {
+            HealthCheckEvent e = pending.remove(id);
+            if (e != null) items.add(HealthEventBatch.Item.from(e));
+        }
+        if (items.isEmpty()) return;
+        // 전송 실패해도 번호는 소비한다: 클라이언트가 gap 으로 보고 스냅샷을 다시 받게
+        long frameSeq = ++seq;
+        try {
+            messagingTemplate.convertAndSend(FLEET_TOPIC, new HealthEventBatch(frameSeq, System.currentTimeMillis(), items));
+            frameCounter.increment();
+        } catch (Exception e) {
+            log.warn("Health batch broadcast failed seq={} size={}: {}", frameSeq, items.size(), e.toString());
+        }
+    }
+
+    /**
+     * 전체 모니터 현재 상태 + 마지막으로 보낸 프레임 번호.
+     * latest 복사와 seq 읽기만 flush 와 같은 락 안에서 하므로 seq 이하 프레임의 내용은 모두 스냅샷에 들어 있다.
+     * 아직 이 노드로 이벤트가 안 온 모니터(재시작 직후, 다른 노드 샤드)는 캐시된 대시보드 상태로 채운다.
+     * 대시보드 조회(캐시 미스면 DB)는 락 밖에서 먼저 해서 flush 를 막지 않는다.
+     */
+    public HealthSnapshot snapshot() {
+        List<DashboardMonitorResponse> dashboard = dashboardService.get().monitors();
+        Map<Long, HealthEventBatch.Item> seen;
+        long snapshotSeq;
+        synchronized (this) {
+            seen = new HashMap<>(latest);
+            snapshotSeq = seq;
+        }
+
+        List<HealthEventBatch.Item> items = new ArrayList<>(seen.values());
+        for (DashboardMonitorResponse m : dashboard) {
+            if (seen.containsKey(m.id())) continue;
+            long observedAt = m.lastCheckedAt() == null ? 0
+                    : m.lastCheckedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            items.add(new HealthEventBatch.Item(m.id(), m.status(), m.lastHttpCode(), m.lastLatencyMs(), null, observedAt));
+        }
+        snapshotCounter.increment();
+        return new HealthSnapshot(snapshotSeq, System.currentTimeMillis(), items);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHealthCheckChanged(HealthCheckChangedEvent event) {
+        if (!event.isDeleted()) return;
+        latest.remove(event.healthCheckId());
+        pending.remove(event.healthCheckId());
+    }
+}
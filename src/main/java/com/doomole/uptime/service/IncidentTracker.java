@@ -0,0 +1,271 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.HealthCheckChangedEvent;
+import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.domain.MonitorDescriptor;
+import com.doomole.uptime.dto.IncidentResponse;
+import com.doomole.uptime.dto.ProbeResult;
+import com.doomole.uptime.repo.IncidentRepo;
+import com.doomole.uptime.scheduler.ShardCoordinator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * 프로브 결과로 모니터별 UP↔DOWN 전이를 판정해 incident 를 열고 닫는다.
+ * 최근 windowM 개 결과 중 실패가 thresholdN 개 이상이면 DOWN(incident 시작 = 그 실패 연속의 첫 실패 시각),
+ * DOWN 에서 최신 결과가 UP 이고 window 의 실패가 thresholdN 미만이 되면 복구(종료 = 마지막 실패 뒤 첫 UP 시각).
+ * 판정은 프로브 경로(메모리)에서 하고, 전이(드묾)만 전용 스레드로 DB 에 쓴다.
+ * 샤드 소유가 바뀌면 열린 incident 목록을 writer 스레드에서(앞서 enqueue 된 쓰기 뒤에) 다시 읽고,
+ * 그동안 들어온 결과는 판정하지 않고 모아 뒀다가 다시 읽은 뒤 순서대로 판정한다. 프로브 경로는 DB 나 Future 를 기다리지 않는다.
+ * open 은 DB 에서도 모니터당 1개로 막는다.
+ */
+@Slf4j
+@Service
+public class IncidentTracker {
+    private static final int MAX_WINDOW = 64; // 최근 결과를 long 비트로 들고 있음
+    private static final int MAX_DEFERRED = 50_000;
+
+    private final IncidentRepo incidentRepo;
+    private final MonitorRegistry monitorRegistry;
+    private final ShardCoordinator shardCoordinator;
+    private final Counter openedCounter;
+    private final Counter closedCounter;
+    private final Counter deferredDroppedCounter;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "incident-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Map<Long, State> states = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock reloadLock = new ReentrantReadWriteLock();
+    private final BlockingQueue<Deferred> deferred = new ArrayBlockingQueue<>(MAX_DEFERRED);
+    private final AtomicLong requestedGeneration = new AtomicLong();
+    private volatile Set<Long> openIncidents = Set.of();
+    private volatile long generation;
+    private volatile boolean reloading; // true 면 판정 대신 deferred 에 쌓는다
+
+    public IncidentTracker(IncidentRepo incidentRepo,
+                           MonitorRegistry monitorRegistry,
+                           ShardCoordinator shardCoordinator,
+                           MeterRegistry meterRegistry) {
+        this.incidentRepo = incidentRepo;
+        this.monitorRegistry = monitorRegistry;
+        this.shardCoordinator = shardCoordinator;
+        this.openedCounter = meterRegistry.counter("uptime.incident.opened");
+        this.closedCounter = meterRegistry.counter("uptime.incident.closed");
+        this.deferredDroppedCounter = meterRegistry.counter("uptime.incident.deferred.dropped");
+        meterRegistry.gauge("uptime.incident.open", states,
+                m -> m.values().stream().filter(s -> s.down).count());
+    }
+
+    @PostConstruct
+    void load() {
+        reloadOpen();
+        generation = shardCoordinator.generation();
+        requestedGeneration.set(generation);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /** 프로브 결과 1건 반영 (논블로킹) */
+    public void record(ProbeResult r) {
+        MonitorDescriptor monitor = monitorRegistry.get(r.healthCheckId());
+        if (monitor == null) return;
+
+        int windowM = Math.max(1, Math.min(MAX_WINDOW, monitor.windowM()));
+        int thresholdN = Math.max(1, Math.min(windowM, monitor.thresholdN()));
+        long g = shardCoordinator.generation();
+
+        // 판정 + 쓰기 enqueue 를 read 락 안에서: reload 는 write 락으로 진행 중인 판정이 끝난 뒤에 목록을 읽는다
+        reloadLock.readLock().lock();
+        try {
+            // 샤드를 새로 받은 모니터는 다른 노드가 incident 를 열고 닫았을 수 있다 → 열린 목록을 다시 읽을 때까지 판정 보류
+            if (g > generation) requestReload(g);
+            if (reloading) {
+                defer(new Deferred(r, windowM, thresholdN));
+                return;
+            }
+            judge(r, windowM, thresholdN);
+        } finally {
+            reloadLock.readLock().unlock();
+        }
+    }
+
+    private void judge(ProbeResult r, int windowM, int thresholdN) {
+        Long id = r.healthCheckId();
+        State state = states.computeIfAbsent(id, k -> new State(openIncidents.contains(k)));
+        Transition t;
+        synchronized (state) {
+            t = state.observe(r, windowM, thresholdN);
+        }
+        if (t == null) return;
+
+        if (t.opened) {
+            openedCounter.increment();
+            log.info("Incident opened id={} startedAt={} error={}", id, t.at, t.error);
+            writer.execute(() -> write(() -> {
+                if (!incidentRepo.open(id, t.at, t.error, t.httpCode)) log.info("Incident already open id={}", id);
+            }, id));
+        } else {
+            closedCounter.increment();
+            log.info("Incident closed id={} endedAt={}", id, t.at);
+            writer.execute(() -> write(() -> incidentRepo.close(id, t.at), id));
+        }
+    }
+
+    private void defer(Deferred d) {
+        if (deferred.offer(d)) return;
+        deferredDroppedCounter.increment();
+        log.warn("Incident deferred queue full, dropped result id={} observedAt={}", d.result.healthCheckId(), d.result.observedAt());
+    }
+
+    // 삭제된 모니터의 열린 incident 는 삭제 시각으로 닫는다
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHealthCheckChanged(HealthCheckChangedEvent event) {
+        if (!event.isDeleted()) return;
+        State removed = states.remove(event.healthCheckId());
+        if (removed != null && removed.down) {
+            LocalDateTime now = LocalDateTime.now();
+            writer.execute(() -> write(() -> incidentRepo.close(event.healthCheckId(), now), event.healthCheckId()));
+        }
+    }
+
+    // 세대마다 한 번만 writer 에 reload 를 건다 (read 락 안에서 호출). 세대는 늘기만 한다
+    private void requestReload(long g) {
+        reloading = true;
+        long prev;
+        while ((prev = requestedGeneration.get()) < g) {
+            if (requestedGeneration.compareAndSet(prev, g)) {
+                writer.execute(() -> fenceAndReload(g));
+                return;
+            }
+        }
+    }
+
+    // writer 스레드: write 락으로 진행 중인 판정을 끝까지 기다린 뒤(이후 결과는 전부 deferred 로 감),
+    // 그 판정들이 enqueue 한 쓰기 뒤에 목록을 다시 읽도록 한 번 더 줄을 선다
+    private void fenceAndReload(long g) {
+        reloadLock.writeLock().lock();
+        reloadLock.writeLock().unlock();
+        writer.execute(() -> reload(g));
+    }
+
+    private void reload(long g) {
+        Set<Long> open = findOpen(); // 락 밖에서 조회
+        reloadLock.writeLock().lock();
+        try {
+            if (open != null) openIncidents = open;
+            states.clear();
+            generation = g;
+            if (requestedGeneration.get() != g) return; // 그 사이 세대가 또 바뀜 → 다음 reload 가 이어서 판정
+
+            List<Deferred> pending = new ArrayList<>(deferred.size());
+            deferred.drainTo(pending);
+            for (Deferred d : pending) judge(d.result, d.windowM, d.thresholdN);
+            reloading = false;
+            log.info("Incident open list reloaded generation={} open={} replayed={}", g, openIncidents.size(), pending.size());
+        } finally {
+            reloadLock.writeLock().unlock();
+        }
+    }
+
+    private void reloadOpen() {
+        Set<Long> open = findOpen();
+        if (open != null) openIncidents = open;
+    }
+
+    // 실패하면 null (기존 목록 유지)
+    private Set<Long> findOpen() {
+        try {
+            return incidentRepo.findOpen().stream()
+                    .map(IncidentResponse::healthCheckId)
+                    .collect(Collectors.toUnmodifiableSet());
+        } catch (Exception e) {
+            log.warn("Open incident load failed: {}", e.toString());
+            return null;
+        }
+    }
+
+    private static void write(Runnable op, Long id) {
+        try {
+            op.run();
+        } catch (Exception e) {
+            log.error("Incident write failed id={}", id, e);
+        }
+    }
+
+    record Transition(boolean opened, LocalDateTime at, String error, Integer httpCode) {}
+
+    private record Deferred(ProbeResult result, int windowM, int thresholdN) {}
+
+    /** 모니터 하나의 판정 상태 (최근 결과 실패 비트 + 현재 UP/DOWN) */
+    static final class State {
+        long failBits;          // bit0 = 가장 최근 결과가 실패
+        boolean down;
+        LocalDateTime streakStart;   // window 가 깨끗해진 뒤 첫 실패
+        String streakError;
+        Integer streakHttpCode;
+        LocalDateTime recoveredAt;   // 마지막 실패 뒤 첫 UP
+        boolean lastFailed;
+
+        State(boolean down) {
+            this.down = down;
+        }
+
+        Transition observe(ProbeResult r, int windowM, int thresholdN) {
+            boolean failed = r.status() != HealthStatus.UP;
+            failBits = (failBits << 1) | (failed ? 1 : 0);
+            long mask = windowM == MAX_WINDOW ? -1L : (1L << windowM) - 1;
+            int fails = Long.bitCount(failBits & mask);
+
+            if (failed) {
+                if (streakStart == null) {
+                    streakStart = r.observedAt();
+                    streakError = r.error();
+                    streakHttpCode = r.httpCode();
+                }
+                recoveredAt = null;
+            } else if (lastFailed || recoveredAt == null) {
+                recoveredAt = r.observedAt();
+            }
+            lastFailed = failed;
+
+            if (!down && fails >= thresholdN) {
+                down = true;
+                return new Transition(true, streakStart != null ? streakStart : r.observedAt(), streakError, streakHttpCode);
+            }
+            if (down && !failed && fails < thresholdN) {
+                down = false;
+                streakStart = null;
+                return new Transition(false, recoveredAt, null, null);
+            }
+            if (!down && fails == 0) streakStart = null; // 임계 미만으로 끝난 실패는 잊는다
+            return null;
+        }
+    }
+}
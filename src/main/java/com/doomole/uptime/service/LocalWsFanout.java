@@ -0,0 +1,20 @@
+package com.doomole.uptime.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Consumer;
+
+/** 단일 노드: 다른 노드가 없으므로 아무것도 하지 않는다 */
+@Service
+@ConditionalOnProperty(name = "uptime.ws.fanout", havingValue = "local", matchIfMissing = true)
+public class LocalWsFanout implements WsFanout {
+
+    @Override
+    public void send(String channel, Object payload) {
+    }
+
+    @Override
+    public <T> void subscribe(String channel, Class<T> type, Consumer<T> handler) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.HealthCheckChangedEvent;
+import com.doomole.uptime.domain.MonitorDescriptor;
+import com.doomole.uptime.repo.HealthCheckRepo;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 모니터 정의 인메모리 레지스트리.
+ * 시작 시 1회 로드하고, 이후엔 HealthCheckService 의 변경 이벤트(write-through)와
+ * 다른 노드의 변경 알림(Redis pub/sub)으로만 갱신한다. 스케줄러 hot loop 는 Hibernate 를 타지 않는다.
+ */
+@Slf4j
+@Service
+public class MonitorRegistry implements MessageListener {
+    static final String CHANNEL = "uptime:monitor:changed";
+
+    private final HealthCheckRepo healthCheckRepo;
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final String origin = UUID.randomUUID().toString();
+    private final Map<Long, MonitorDescriptor> monitors = new ConcurrentHashMap<>();
+
+    public MonitorRegistry(HealthCheckRepo healthCheckRepo,
+                           StringRedisTemplate redis,
+                           RedisMessageListenerContainer listenerContainer,
+                           ApplicationEventPublisher eventPublisher) {
+        this.healthCheckRepo = healthCheckRepo;
+        this.redis = redis;
+        this.listenerContainer = listenerContainer;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    void load() {
+        healthCheckRepo.findAll().forEach(hc -> monitors.put(hc.getId(), MonitorDescriptor.from(hc)));
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        log.info("MonitorRegistry loaded monitors={}", monitors.size());
+    }
+
+    public MonitorDescriptor get(Long id) {
+        return monitors.get(id);
+    }
+
+    public Collection<MonitorDescriptor> all() {
+        return monitors.values();
+    }
+
+    public List<MonitorDescriptor> enabled() {
+        return monitors.values().stream().filter(MonitorDescriptor::enabled).toList();
+    }
+
+    public List<MonitorDescriptor> sorted() {
+        return monitors.values().stream().sorted(Comparator.comparing(MonitorDescriptor::id)).toList();
+    }
+
+    public int size() {
+        return monitors.size();
+    }
+
+    // 로컬 변경: 커밋 후 반영하고 다른 노드에 알린다 (스케줄러 등 다른 리스너보다 먼저)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHealthCheckChanged(HealthCheckChangedEvent event) {
+        apply(event);
+        if (event.remote()) return;
+        try {
+            redis.convertAndSend(CHANNEL, origin + ":" + event.healthCheckId());
+        } catch (Exception e) {
+            log.warn("Monitor change notify failed id={}: {}", event.healthCheckId(), e.toString());
+        }
+    }
+
+    // 원격 변경: 해당 id 만 DB 에서 다시 읽어 반영
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int sep = body.lastIndexOf(':');
+        if (sep < 0 || body.substring(0, sep).equals(origin)) return;
+
+        Long id = Long.valueOf(body.substring(sep + 1));
+        MonitorDescriptor monitor = healthCheckRepo.findById(id).map(MonitorDescriptor::from).orElse(null);
+        eventPublisher.publishEvent(new HealthCheckChangedEvent(id, monitor, true));
+        log.info("Monitor change received from peer id={} deleted={}", id, monitor == null);
+    }
+
+    private void apply(HealthCheckChangedEvent event) {
+        if (event.isDeleted()) monitors.remove(event.healthCheckId());
+        else monitors.put(event.healthCheckId(), event.monitor());
+    }
+}
@@ -0,0 +1,316 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.CheckType;
+import com.doomole.uptime.domain.MonitorDescriptor;
+import com.doomole.uptime.domain.ProbeTimings;
+import com.doomole.uptime.dto.ProbeResult;
+import com.doomole.uptime.filter.CorrelationIdFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 논블로킹 프로브 엔진.
+ * 스케줄러는 submit()으로 체크를 밀어넣고 바로 리턴하고,
+ * 실제 HTTP 호출은 동시성 상한(flatMap concurrency) 안에서 비동기로 수행된다.
+ * 결과 처리(HealthCheckService.recordResult: window/incident 판정, WS 브로드캐스트, 저장 큐 적재)는
+ * netty 이벤트 루프가 아니라 전용 hand-off 스레드에서 한다. 모니터 id 로 스레드를 고정해 모니터별 순서는 유지되고,
+ * 스레드별 큐가 차면 결과를 버리고 uptime.probe.handoff.dropped 를 올린다(이벤트 루프는 절대 기다리지 않음).
+ * 대상 호스트별 동시 프로브 수도 제한해서, 느린 호스트 하나가 전체 슬롯/풀을 먹지 못하게 한다.
+ * 결과에는 총 지연 외에 DNS/connect/TLS/TTFB 구간을 따로 담고, 요청이 나가기 전까지 우리 쪽에서 쓴
+ * 시간(풀 대기 등 overhead)은 uptime.probe.phase{phase=overhead} 로 남긴다.
+ */
+@Slf4j
+@Service
+public class ProbeEngine {
+    private static final long MAX_DRAIN_BYTES = 64 * 1024; // 이보다 큰 본문은 끝까지 읽지 않고 커넥션을 버린다
+
+    private final WebClient webClient;
+    private final HealthCheckService healthCheckService;
+
+    private final int concurrency;
+    private final int perHostConcurrency;
+    private final int perHostMaxWaiting;
+    private final Duration timeout;
+
+    // 이전 프로브가 아직 끝나지 않은 대상은 중복 발사하지 않는다
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, HostGate> hostGates = new ConcurrentHashMap<>();
+    private final Counter hostRejected;
+    private final Counter handOffDropped;
+    private final ThreadPoolExecutor[] handOffWorkers;
+    private final Timer dnsTimer;
+    private final Timer connectTimer;
+    private final Timer tlsTimer;
+    private final Timer ttfbTimer;
+    private final Timer overheadTimer;
+
+    private FluxSink<ProbeTask> sink;
+    private Disposable pipeline;
+
+    public ProbeEngine(@Qualifier("probeWebClient") WebClient webClient,
+                       HealthCheckService healthCheckService,
+                       MeterRegistry meterRegistry,
+                       @Value("${uptime.probe.concurrency:256}") int concurrency,
+                       @Value("${uptime.probe.perHostConcurrency:4}") int perHostConcurrency,
+                       @Value("${uptime.probe.perHostMaxWaiting:1000}") int perHostMaxWaiting,
+                       @Value("${uptime.probe.timeoutSeconds:15}") long timeoutSeconds,
+                       @Value("${uptime.probe.handoffThreads:4}") int handOffThreads,
+                       @Value("${uptime.probe.handoffQueue:10000}") int handOffQueue) {
+        this.webClient = webClient;
+        this.healthCheckService = healthCheckService;
+        this.concurrency = concurrency;
+        this.perHostConcurrency = perHostConcurrency;
+        this.perHostMaxWaiting = perHostMaxWaiting;
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+
+        this.hostRejected = meterRegistry.counter("uptime.probe.host.rejected");
+        this.handOffDropped = meterRegistry.counter("uptime.probe.handoff.dropped");
+        this.handOffWorkers = new ThreadPoolExecutor[Math.max(1, handOffThreads)];
+        for (int i = 0; i < handOffWorkers.length; i++) {
+            String name = "probe-handoff-" + i;
+            handOffWorkers[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(handOffQueue), r -> {
+                        Thread t = new Thread(r, name);
+                        t.setDaemon(true);
+                        return t;
+                    });
+        }
+        this.dnsTimer = phaseTimer(meterRegistry, "dns");
+        this.connectTimer = phaseTimer(meterRegistry, "connect");
+        this.tlsTimer = phaseTimer(meterRegistry, "tls");
+        this.ttfbTimer = phaseTimer(meterRegistry, "ttfb");
+        this.overheadTimer = phaseTimer(meterRegistry, "overhead");
+        meterRegistry.gauge("uptime.probe.inflight", inFlight, Set::size);
+        meterRegistry.gauge("uptime.probe.host.waiting", hostGates,
+                gates -> gates.values().stream().mapToInt(HostGate::waiting).sum());
+        meterRegistry.gauge("uptime.probe.handoff.queued", handOffWorkers,
+                ws -> Arrays.stream(ws).mapToInt(w -> w.getQueue().size()).sum());
+    }
+
+    @PostConstruct
+    void start() {
+        // Flux.create 의 sink 는 직렬화되어 있어 여러 스레드에서 next() 해도 안전
+        pipeline = Flux.<ProbeTask>create(s -> this.sink = s)
+                .flatMap(task -> probe(task)
+                        .doOnNext(result -> handOff(task, result))
+                        .doFinally(sig -> complete(task)), concurrency)
+                .subscribe(
+                        v -> { },
+                        e -> log.error("Probe pipeline terminated unexpectedly", e)
+                );
+        log.info("ProbeEngine started concurrency={} perHost={} timeout={}", concurrency, perHostConcurrency, timeout);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (pipeline != null) pipeline.dispose();
+        // 이미 받은 결과는 저장 큐까지 넘기고 끝낸다
+        for (ThreadPoolExecutor w : handOffWorkers) w.shutdown();
+        for (ThreadPoolExecutor w : handOffWorkers) w.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 체크 1건을 파이프라인에 넣는다. 호출 스레드는 블로킹되지 않는다.
+     * 호스트 동시성 상한에 걸리면 호스트별 대기열에서 기다렸다가 앞선 프로브가 끝날 때 발사된다.
+     * @return 실제로 발사(또는 대기) 대기열에 들어갔으면 true (비활성/진행중/대기열 초과면 false)
+     */
+    public boolean submit(MonitorDescriptor monitor, LocalDateTime now) {
+        if (!monitor.enabled()) return false;     // 🔹비활성 스킵
+        if (monitor.type() != CheckType.HTTP) return false;
+        if (!inFlight.add(monitor.id())) {
+            log.debug("Probe still in flight, skip id={}", monitor.id());
+            return false;
+        }
+
+        String corrId = "sched-" + monitor.id() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        ProbeTask task = new ProbeTask(monitor, now, corrId, hostKey(monitor.url()));
+        HostGate gate = hostGates.computeIfAbsent(task.host(), h -> new HostGate());
+
+        switch (gate.admit(task, perHostConcurrency, perHostMaxWaiting)) {
+            case RUN -> {
+                log.debug("Probe submit id={} url={} corrId={}", monitor.id(), monitor.url(), corrId);
+                sink.next(task);
+            }
+            case QUEUED -> log.debug("Probe queued on busy host id={} host={}", monitor.id(), task.host());
+            case REJECTED -> {
+                inFlight.remove(monitor.id());
+                hostRejected.increment();
+                log.warn("Probe rejected, host queue full id={} host={}", monitor.id(), task.host());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Mono<ProbeResult> probe(ProbeTask task) {
+        MonitorDescriptor monitor = task.monitor();
+        return Mono.defer(() -> {
+            long startNs = System.nanoTime();
+            ProbeTimings timings = new ProbeTimings();
+            return webClient.get()
+                    .uri(monitor.url())
+                    .header(CorrelationIdFilter.HDR, task.corrId())
+                    .exchangeToMono(ProbeEngine::drainAndGetStatus)
+                    .contextWrite(ctx -> ctx.put(ProbeTimings.CONTEXT_KEY, timings))
+                    .timeout(timeout)
+                    .defaultIfEmpty(0) // 응답 없으면 0으로
+                    .map(code -> ProbeResult.of(monitor.id(), task.observedAt(), code, elapsedMs(startNs), null, timings))
+                    .onErrorResume(e -> Mono.just(ProbeResult.of(
+                            monitor.id(), task.observedAt(), 0, elapsedMs(startNs), errorMessage(e), timings)))
+                    .doOnNext(result -> recordPhases(startNs, timings, result));
+        });
+    }
+
+    private void recordPhases(long startNs, ProbeTimings timings, ProbeResult result) {
+        recordIfPresent(dnsTimer, result.dnsMs());
+        recordIfPresent(connectTimer, result.connectMs());
+        recordIfPresent(tlsTimer, result.tlsMs());
+        recordIfPresent(ttfbTimer, result.ttfbMs());
+        if (timings.requestStartNs() != 0) {
+            // 요청 송신까지 걸린 시간 중 커넥션 수립을 뺀 나머지 = 풀 대기/스케줄링 등 우리 쪽 overhead
+            long establishMs = nullToZero(result.dnsMs()) + nullToZero(result.connectMs()) + nullToZero(result.tlsMs());
+            long beforeRequestMs = (timings.requestStartNs() - startNs) / 1_000_000;
+            overheadTimer.record(Math.max(0, beforeRequestMs - establishMs), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void recordIfPresent(Timer timer, Integer ms) {
+        if (ms != null) timer.record(ms, TimeUnit.MILLISECONDS);
+    }
+
+    private static long nullToZero(Integer v) {
+        return v == null ? 0 : v;
+    }
+
+    private static Timer phaseTimer(MeterRegistry registry, String phase) {
+        return Timer.builder("uptime.probe.phase")
+                .description("프로브 구간별 소요시간")
+                .tag("phase", phase)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    /**
+     * 본문을 MAX_DRAIN_BYTES 까지만 읽어 버린다.
+     * 끝까지 읽히면 커넥션은 keep-alive 풀로 반환되고, 넘치면 cancel 되어 커넥션이 닫힌다(무한 본문 방어).
+     */
+    private static Mono<Integer> drainAndGetStatus(ClientResponse resp) {
+        int code = resp.statusCode().value();
+        AtomicLong seen = new AtomicLong();
+        return resp.bodyToFlux(DataBuffer.class)
+                .takeWhile(buf -> {
+                    long total = seen.addAndGet(buf.readableByteCount());
+                    DataBufferUtils.release(buf);
+                    return total <= MAX_DRAIN_BYTES;
+                })
+                .then(Mono.just(code));
+    }
+
+    // 이벤트 루프(또는 timeout 타이머) 스레드에서 호출: 큐에 넣기만 한다
+    private void handOff(ProbeTask task, ProbeResult result) {
+        ThreadPoolExecutor worker = handOffWorkers[Math.floorMod(task.monitor().id().hashCode(), handOffWorkers.length)];
+        try {
+            worker.execute(() -> record(task, result));
+        } catch (RejectedExecutionException e) {
+            handOffDropped.increment();
+            log.warn("Probe hand-off queue full, dropped result id={} corrId={}", task.monitor().id(), task.corrId());
+        }
+    }
+
+    private void record(ProbeTask task, ProbeResult result) {
+        try {
+            healthCheckService.recordResult(result);
+        } catch (Exception e) {
+            log.error("Record probe result failed id={} corrId={}", task.monitor().id(), task.corrId(), e);
+        }
+    }
+
+    // 프로브 종료: 모니터 in-flight 해제 + 같은 호스트 대기 건 하나 발사
+    private void complete(ProbeTask task) {
+        inFlight.remove(task.monitor().id());
+        ProbeTask next = hostGates.get(task.host()).release();
+        if (next != null) sink.next(next);
+    }
+
+    private static String hostKey(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getHost() + ":" + uri.getPort();
+        } catch (Exception e) {
+            return url;
+        }
+    }
+
+    private static int elapsedMs(long startNs) {
+        return (int) ((System.nanoTime() - startNs) / 1_000_000);
+    }
+
+    private static String errorMessage(Throwable e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private record ProbeTask(MonitorDescriptor monitor, LocalDateTime observedAt, String corrId, String host) {}
+
+    private enum Admission { RUN, QUEUED, REJECTED }
+
+    /** 호스트별 동시성 게이트 (논블로킹 세마포어 + 대기열) */
+    private static final class HostGate {
+        private final ArrayDeque<ProbeTask> waiting = new ArrayDeque<>();
+        private int active;
+
+        synchronized Admission admit(ProbeTask task, int limit, int maxWaiting) {
+            if (active < limit) {
+                active++;
+                return Admission.RUN;
+            }
+            if (waiting.size() >= maxWaiting) return Admission.REJECTED;
+            waiting.addLast(task);
+            return Admission.QUEUED;
+        }
+
+        // 대기 건이 있으면 슬롯을 그대로 넘겨준다
+        synchronized ProbeTask release() {
+            ProbeTask next = waiting.pollFirst();
+            if (next == null) active--;
+            return next;
+        }
+
+        synchronized int waiting() {
+            return waiting.size();
+        }
+    }
+}
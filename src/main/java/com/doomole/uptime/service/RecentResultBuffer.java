@@ -0,0 +1,232 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.HealthCheckChangedEvent;
+import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.dto.HealthCheckResultResponse;
+import com.doomole.uptime.dto.ProbeResult;
+import com.doomole.uptime.entity.HealthCheckResult;
+import com.doomole.uptime.repo.HealthCheckResultRepo;
+import com.doomole.uptime.repo.ResultRunRepo;
+import com.doomole.uptime.scheduler.ShardCoordinator;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 모니터별 최근 결과 링버퍼 (고정 용량, 필드별 원시 배열).
+ * 프로브 경로(recordResult)에서 채우고, 최근 N건 조회는 용량 이내면 DB 를 타지 않는다.
+ * 처음 조회될 때 DB 최근 이력(run 저장 모드면 run 을 펼친 것)으로 한 번 채우고(seed), 이후엔 메모리만 갱신한다.
+ * 클러스터 모드에선 내 샤드가 아닌 모니터는 결과가 들어오지 않으므로 DB 로 넘기고,
+ * 샤드 소유가 바뀌면(generation) 다시 seed 한다.
+ * 메모리 사용량 추정치는 uptime.results.recent.bytes 로 노출.
+ */
+@Slf4j
+@Service
+public class RecentResultBuffer {
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final int NONE = -1;              // int 배열의 null 표시
+    private static final int MAX_ERROR_CHARS = 512;  // 메모리 상한을 위해 오류 메시지는 잘라서 보관
+    // 슬롯당 고정 비용: ts(8) + status(1) + code/latency/dns/connect/tls/ttfb(4*6) + error 참조(8)
+    private static final int SLOT_BYTES = 8 + 1 + 4 * 6 + 8;
+
+    private final HealthCheckResultRepo healthCheckResultRepo;
+    private final ResultRunRepo resultRunRepo;
+    private final ShardCoordinator shardCoordinator;
+    private final MonitorRegistry monitorRegistry;
+    private final int capacity;
+
+    private final Map<Long, Ring> rings = new ConcurrentHashMap<>();
+
+    public RecentResultBuffer(HealthCheckResultRepo healthCheckResultRepo,
+                              ResultRunRepo resultRunRepo,
+                              ShardCoordinator shardCoordinator,
+                              MonitorRegistry monitorRegistry,
+                              MeterRegistry meterRegistry,
+                              @Value("${uptime.results.recent.capacity:128}") int capacity) {
+        this.healthCheckResultRepo = healthCheckResultRepo;
+        this.resultRunRepo = resultRunRepo;
+        this.shardCoordinator = shardCoordinator;
+        this.monitorRegistry = monitorRegistry;
+        this.capacity = capacity;
+
+        meterRegistry.gauge("uptime.results.recent.monitors", rings, Map::size);
+        meterRegistry.gauge("uptime.results.recent.bytes", rings,
+                m -> m.values().stream().mapToLong(Ring::estimatedBytes).sum());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /** 프로브 결과 적재 (논블로킹, 링 단위 락만). 삭제된 모니터의 늦게 도착한 결과로 링을 되살리지 않는다 */
+    public void append(ProbeResult r) {
+        if (monitorRegistry.get(r.healthCheckId()) == null) return;
+        rings.computeIfAbsent(r.healthCheckId(), id -> new Ring(capacity, shardCoordinator.generation()))
+                .append(toEpochMs(r.observedAt()), r.status(), r.httpCode(), r.latencyMs(), r.error(),
+                        r.dnsMs(), r.connectMs(), r.tlsMs(), r.ttfbMs());
+    }
+
+    /**
+     * 최근 limit 건 (최신순). 메모리로 답할 수 없으면 empty → 호출자가 DB 로 조회.
+     */
+    public Optional<List<HealthCheckResultResponse>> recent(Long healthCheckId, int limit) {
+        if (limit > capacity || !shardCoordinator.owns(healthCheckId)) return Optional.empty();
+
+        long generation = shardCoordinator.generation();
+        Ring ring = rings.compute(healthCheckId, (id, r) ->
+                r == null || r.generation != generation ? new Ring(capacity, generation) : r);
+        if (!ring.seeded) seed(healthCheckId, ring);
+        return Optional.of(ring.newest(limit));
+    }
+
+    /** 메모리에 있는 가장 최근 결과 (seed 하지 않음). 내 샤드가 아니거나 아직 결과가 없으면 empty */
+    public Optional<HealthCheckResultResponse> latest(Long healthCheckId) {
+        if (!shardCoordinator.owns(healthCheckId)) return Optional.empty();
+        Ring ring = rings.get(healthCheckId);
+        if (ring == null || ring.generation != shardCoordinator.generation()) return Optional.empty();
+        return ring.newest(1).stream().findFirst();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHealthCheckChanged(HealthCheckChangedEvent event) {
+        if (event.isDeleted()) rings.remove(event.healthCheckId());
+    }
+
+    // DB 최근 이력으로 링의 빈 앞부분을 채운다. 이미 메모리에 있는 구간(아직 flush 전일 수 있음)은 DB 에서 가져오지 않음
+    private void seed(Long healthCheckId, Ring ring) {
+        List<HealthCheckResultResponse> rows = resultRunRepo.isEnabled()
+                ? resultRunRepo.recent(healthCheckId, capacity)
+                : healthCheckResultRepo.findRecent(healthCheckId, capacity).stream().map(RecentResultBuffer::toResponse).toList();
+        ring.seed(rows);
+        log.debug("Recent buffer seeded id={} rows={}", healthCheckId, rows.size());
+    }
+
+    private static HealthCheckResultResponse toResponse(HealthCheckResult r) {
+        return new HealthCheckResultResponse(r.getId(), r.getObservedAt(), r.getHealthStatus(), r.getHttpCode(),
+                r.getLatencyMs(), r.getErrorMessage(), r.getDnsMs(), r.getConnectMs(), r.getTlsMs(), r.getTtfbMs());
+    }
+
+    private static long toEpochMs(LocalDateTime t) {
+        return t.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static final class Ring {
+        final long generation;
+        volatile boolean seeded;
+
+        private final long[] observedAt;
+        private final byte[] status;
+        private final int[] httpCode;
+        private final int[] latencyMs;
+        private final int[] dnsMs;
+        private final int[] connectMs;
+        private final int[] tlsMs;
+        private final int[] ttfbMs;
+        private final String[] error;
+        private int head;   // 다음 쓰기 위치
+        private int size;
+        private long errorChars;
+
+        Ring(int capacity, long generation) {
+            this.generation = generation;
+            observedAt = new long[capacity];
+            status = new byte[capacity];
+            httpCode = new int[capacity];
+            latencyMs = new int[capacity];
+            dnsMs = new int[capacity];
+            connectMs = new int[capacity];
+            tlsMs = new int[capacity];
+            ttfbMs = new int[capacity];
+            error = new String[capacity];
+        }
+
+        synchronized void append(long ts, HealthStatus st, Integer code, Integer latency, String err,
+                                 Integer dns, Integer connect, Integer tls, Integer ttfb) {
+            write(head, ts, st, code, latency, err, dns, connect, tls, ttfb);
+            head = (head + 1) % observedAt.length;
+            if (size < observedAt.length) size++;
+        }
+
+        synchronized void seed(List<HealthCheckResultResponse> newestFirst) {
+            if (seeded) return;
+            long oldest = size == 0 ? Long.MAX_VALUE : observedAt[index(size - 1)];
+            for (HealthCheckResultResponse r : newestFirst) {
+                if (size >= observedAt.length) break;
+                long ts = toEpochMs(r.observedAt());
+                if (ts >= oldest) continue;
+                // 가장 오래된 항목 바로 앞 칸에 채운다
+                int idx = Math.floorMod(head - size - 1, observedAt.length);
+                write(idx, ts, r.status(), r.httpCode(), r.latencyMs(), r.errorMessage(),
+                        r.dnsMs(), r.connectMs(), r.tlsMs(), r.ttfbMs());
+                size++;
+            }
+            seeded = true;
+        }
+
+        synchronized List<HealthCheckResultResponse> newest(int limit) {
+            int n = Math.min(limit, size);
+            List<HealthCheckResultResponse> list = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                int idx = index(i);
+                list.add(new HealthCheckResultResponse(
+                        null, // 메모리 결과는 DB id 가 없다
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(observedAt[idx]), ZONE),
+                        HealthStatus.values()[status[idx]],
+                        boxed(httpCode[idx]),
+                        boxed(latencyMs[idx]),
+                        error[idx],
+                        boxed(dnsMs[idx]),
+                        boxed(connectMs[idx]),
+                        boxed(tlsMs[idx]),
+                        boxed(ttfbMs[idx])
+                ));
+            }
+            return list;
+        }
+
+        synchronized long estimatedBytes() {
+            return (long) observedAt.length * SLOT_BYTES + errorChars * 2;
+        }
+
+        // i 번째로 최신인 항목의 배열 위치
+        private int index(int i) {
+            return Math.floorMod(head - 1 - i, observedAt.length);
+        }
+
+        private void write(int idx, long ts, HealthStatus st, Integer code, Integer latency, String err,
+                           Integer dns, Integer connect, Integer tls, Integer ttfb) {
+            if (error[idx] != null) errorChars -= error[idx].length();
+            String e = err == null || err.length() <= MAX_ERROR_CHARS ? err : err.substring(0, MAX_ERROR_CHARS);
+            if (e != null) errorChars += e.length();
+
+            observedAt[idx] = ts;
+            status[idx] = (byte) st.ordinal();
+            httpCode[idx] = unboxed(code);
+            latencyMs[idx] = unboxed(latency);
+            dnsMs[idx] = unboxed(dns);
+            connectMs[idx] = unboxed(connect);
+            tlsMs[idx] = unboxed(tls);
+            ttfbMs[idx] = unboxed(ttfb);
+            error[idx] = e;
+        }
+
+        private static int unboxed(Integer v) {
+            return v == null ? NONE : v;
+        }
+
+        private static Integer boxed(int v) {
+            return v == NONE ? null : v;
+        }
+    }
+}
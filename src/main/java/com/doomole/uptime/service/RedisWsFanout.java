@@ -0,0 +1,179 @@
+package com.doomole.uptime.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Redis pub/sub 기반 노드 간 WS fan-out. 채널: uptime:ws:{channel}, 본문: {origin, sentAt, payload} JSON.
+ * - 발행/수신 모두 bounded 큐 + 전용 스레드: 프로브/Redis 리스너 스레드를 막지 않고, 넘치면 버리고 센다(backpressure)
+ * - 자기 노드가 보낸 메시지는 origin 으로 걸러낸다 (로컬 전달은 발행 측에서 이미 함)
+ * - publish→deliver 지연은 uptime.ws.fanout.latency (노드 간 시계 차이만큼 오차)
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "uptime.ws.fanout", havingValue = "redis")
+public class RedisWsFanout implements WsFanout, MessageListener {
+    private static final String CHANNEL_PREFIX = "uptime:ws:";
+
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    private final String origin = UUID.randomUUID().toString();
+    private final Map<String, Handler<?>> handlers = new ConcurrentHashMap<>();
+    private final BlockingQueue<Outbound> outbound;
+    private final BlockingQueue<Message> inbound;
+
+    private final Counter publishedCounter;
+    private final Counter deliveredCounter;
+    private final Counter droppedOutCounter;
+    private final Counter droppedInCounter;
+    private final Timer latencyTimer;
+
+    private volatile boolean running;
+    private Thread publisher;
+    private Thread deliverer;
+
+    public RedisWsFanout(StringRedisTemplate redis,
+                         RedisMessageListenerContainer listenerContainer,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${uptime.ws.fanoutQueueCapacity:10000}") int queueCapacity) {
+        this.redis = redis;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.outbound = new ArrayBlockingQueue<>(queueCapacity);
+        this.inbound = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.publishedCounter = meterRegistry.counter("uptime.ws.fanout.published");
+        this.deliveredCounter = meterRegistry.counter("uptime.ws.fanout.delivered");
+        this.droppedOutCounter = meterRegistry.counter("uptime.ws.fanout.dropped", "direction", "out");
+        this.droppedInCounter = meterRegistry.counter("uptime.ws.fanout.dropped", "direction", "in");
+        this.latencyTimer = Timer.builder("uptime.ws.fanout.latency")
+                .description("다른 노드 발행 → 이 노드 로컬 전달")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("uptime.ws.fanout.queue", Tags.of("direction", "out"), outbound, BlockingQueue::size);
+        meterRegistry.gauge("uptime.ws.fanout.queue", Tags.of("direction", "in"), inbound, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        publisher = daemon("ws-fanout-pub", this::publishLoop);
+        deliverer = daemon("ws-fanout-deliver", this::deliverLoop);
+        log.info("Redis WS fan-out started origin={}", origin);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        publisher.interrupt();
+        deliverer.interrupt();
+    }
+
+    @Override
+    public void send(String channel, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(new Envelope(origin, System.currentTimeMillis(), payload));
+        } catch (Exception e) {
+            log.warn("Fan-out serialize failed channel={}: {}", channel, e.toString());
+            return;
+        }
+        if (!outbound.offer(new Outbound(CHANNEL_PREFIX + channel, json))) droppedOutCounter.increment();
+    }
+
+    @Override
+    public <T> void subscribe(String channel, Class<T> type, Consumer<T> handler) {
+        handlers.put(CHANNEL_PREFIX + channel, new Handler<>(type, handler));
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL_PREFIX + channel));
+    }
+
+    // Redis 리스너 스레드: 큐에 넣기만
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!inbound.offer(message)) droppedInCounter.increment();
+    }
+
+    private void publishLoop() {
+        while (running) {
+            try {
+                Outbound o = outbound.take();
+                redis.convertAndSend(o.channel, o.json);
+                publishedCounter.increment();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Fan-out publish failed: {}", e.toString());
+            }
+        }
+    }
+
+    private void deliverLoop() {
+        while (running) {
+            try {
+                deliver(inbound.take());
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Fan-out deliver failed: {}", e.toString());
+            }
+        }
+    }
+
+    private void deliver(Message message) throws Exception {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        Handler<?> handler = handlers.get(channel);
+        if (handler == null) return;
+        JsonNode envelope = objectMapper.readTree(message.getBody());
+        if (origin.equals(envelope.path("origin").asText())) return;
+
+        handler.accept(objectMapper, envelope.get("payload"));
+        deliveredCounter.increment();
+        latencyTimer.record(Math.max(0, System.currentTimeMillis() - envelope.path("sentAt").asLong()), TimeUnit.MILLISECONDS);
+    }
+
+    private static Thread daemon(String name, Runnable r) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+
+    private record Envelope(String origin, long sentAt, Object payload) {}
+
+    private record Outbound(String channel, String json) {}
+
+    private record Handler<T>(Class<T> type, Consumer<T> consumer) {
+        void accept(ObjectMapper om, JsonNode payload) throws Exception {
+            consumer.accept(om.treeToValue(payload, type));
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.dto.HealthCheckResultResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 오래된 결과의 콜드 티어 (로컬 디스크, 모니터별·일별 컬럼형 파일).
+ * 경로: {dir}/{healthCheckId}/{yyyy-MM-dd}.ucr
+ * 형식: 헤더(magic, version, count, 첫 시각) + 컬럼 섹션(길이 접두)
+ *   시각은 observedAt 을 UTC 로 본 epoch ms (서버 시간대가 바뀌어도 같은 파일이 같은 값으로 읽힘, v1 은 시스템 시간대)
+ *   ts: 직전 대비 delta varint / status: 1바이트 / code·latency·dns·connect·tls·ttfb: nullable varint(0=null, v+1)
+ *   error: 사전(문자열 목록) + 행별 사전 인덱스 varint(0=null)
+ * 읽기는 mmap(READ_ONLY) 으로 한 번에 디코드한다. 쓰기는 임시 파일 → fsync → atomic move.
+ */
+@Slf4j
+@Service
+public class ResultArchive {
+    private static final int MAGIC = 0x55435231; // "UCR1"
+    private static final byte VERSION = 2;
+    private static final byte VERSION_SYSTEM_ZONE = 1; // v1: 시스템 시간대 기준 epoch
+    private static final String EXT = ".ucr";
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    private static final HealthStatus[] STATUSES = HealthStatus.values();
+
+    private final Path dir;
+    private final boolean enabled;
+
+    public ResultArchive(@Value("${uptime.results.archive.dir:./data/archive}") String dir,
+                         @Value("${uptime.results.archive.enabled:false}") boolean enabled) {
+        this.dir = Paths.get(dir);
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** 하루치 결과를 파일로 (observedAt 오름차순으로 정렬해서 저장, 기존 파일은 교체) */
+    public void writeDay(Long healthCheckId, LocalDate day, List<HealthCheckResultResponse> rows) {
+        List<HealthCheckResultResponse> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(HealthCheckResultResponse::observedAt));
+        Path target = file(healthCheckId, day);
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ch.write(ByteBuffer.wrap(encode(sorted)));
+                ch.force(true);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Archive write failed " + target, e);
+        }
+    }
+
+    /** 하루치 결과 (오름차순). 파일이 없으면 빈 목록 */
+    public List<HealthCheckResultResponse> readDay(Long healthCheckId, LocalDate day) {
+        Path path = file(healthCheckId, day);
+        if (!Files.exists(path)) return List.of();
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            return decode(buf);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Archive read failed " + path, e);
+        }
+    }
+
+    /** 아카이브된 날짜 (최신순) */
+    public List<LocalDate> days(Long healthCheckId) {
+        Path monitorDir = dir.resolve(String.valueOf(healthCheckId));
+        if (!Files.isDirectory(monitorDir)) return List.of();
+        try (Stream<Path> files = Files.list(monitorDir)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.endsWith(EXT))
+                    .map(n -> LocalDate.parse(n.substring(0, n.length() - EXT.length())))
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** before 보다 오래된 최근 limit 건 (최신순) */
+    public List<HealthCheckResultResponse> recent(Long healthCheckId, int limit, LocalDateTime before) {
+        List<HealthCheckResultResponse> out = new ArrayList<>(limit);
+        for (LocalDate day : days(healthCheckId)) {
+            if (out.size() >= limit) break;
+            if (day.isAfter(before.toLocalDate())) continue;
+            List<HealthCheckResultResponse> rows = readDay(healthCheckId, day);
+            for (int i = rows.size() - 1; i >= 0 && out.size() < limit; i--) {
+                if (rows.get(i).observedAt().isBefore(before)) out.add(rows.get(i));
+            }
+        }
+        return out;
+    }
+
+    /** cutoff 이전 날짜 파일 삭제 */
+    public int deleteBefore(LocalDate cutoff) {
+        if (!Files.isDirectory(dir)) return 0;
+        int deleted = 0;
+        try (Stream<Path> monitors = Files.list(dir)) {
+            for (Path monitorDir : monitors.filter(Files::isDirectory).toList()) {
+                try (Stream<Path> files = Files.list(monitorDir)) {
+                    for (Path f : files.toList()) {
+                        String n = f.getFileName().toString();
+                        if (n.endsWith(EXT) && LocalDate.parse(n.substring(0, n.length() - EXT.length())).isBefore(cutoff)) {
+                            Files.deleteIfExists(f);
+                            deleted++;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return deleted;
+    }
+
+    private Path file(Long healthCheckId, LocalDate day) {
+        return dir.resolve(String.valueOf(healthCheckId)).resolve(day + EXT);
+    }
+
+    // ---- 인코딩 ----
+
+    static byte[] encode(List<HealthCheckResultResponse> rows) {
+        ByteArrayOutputStream ts = new ByteArrayOutputStream();
+        ByteArrayOutputStream status = new ByteArrayOutputStream(rows.size());
+        ByteArrayOutputStream code = new ByteArrayOutputStream();
+        ByteArrayOutputStream latency = new ByteArrayOutputStream();
+        ByteArrayOutputStream dns = new ByteArrayOutputStream();
+        ByteArrayOutputStream connect = new ByteArrayOutputStream();
+        ByteArrayOutputStream tls = new ByteArrayOutputStream();
+        ByteArrayOutputStream ttfb = new ByteArrayOutputStream();
+        ByteArrayOutputStream dict = new ByteArrayOutputStream();
+        ByteArrayOutputStream errorIdx = new ByteArrayOutputStream();
+
+        Map<String, Integer> dictIndex = new HashMap<>();
+        List<String> dictValues = new ArrayList<>();
+        long firstTs = rows.isEmpty() ? 0 : epochMs(rows.get(0).observedAt());
+        long prevTs = firstTs;
+        for (HealthCheckResultResponse r : rows) {
+            long t = epochMs(r.observedAt());
+            writeVarint(ts, t - prevTs);
+            prevTs = t;
+            status.write(r.status().ordinal());
+            writeNullable(code, r.httpCode());
+            writeNullable(latency, r.latencyMs());
+            writeNullable(dns, r.dnsMs());
+            writeNullable(connect, r.connectMs());
+            writeNullable(tls, r.tlsMs());
+            writeNullable(ttfb, r.ttfbMs());
+            if (r.errorMessage() == null) {
+                writeVarint(errorIdx, 0);
+            } else {
+                int idx = dictIndex.computeIfAbsent(r.errorMessage(), e -> {
+                    dictValues.add(e);
+                    return dictValues.size() - 1;
+                });
+                writeVarint(errorIdx, idx + 1);
+            }
+        }
+        writeVarint(dict, dictValues.size());
+        for (String e : dictValues) {
+            byte[] b = e.getBytes(StandardCharsets.UTF_8);
+            writeVarint(dict, b.length);
+            dict.writeBytes(b);
+        }
+
+        ByteArrayOutputStream[] columns = {ts, status, code, latency, dns, connect, tls, ttfb, dict, errorIdx};
+        int size = 4 + 1 + 4 + 8;
+        for (ByteArrayOutputStream c : columns) size += 4 + c.size();
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(MAGIC).put(VERSION).putInt(rows.size()).putLong(firstTs);
+        for (ByteArrayOutputStream c : columns) {
+            out.putInt(c.size()).put(c.toByteArray());
+        }
+        return out.array();
+    }
+
+    static List<HealthCheckResultResponse> decode(ByteBuffer buf) {
+        if (buf.getInt() != MAGIC) throw new IllegalStateException("Unknown archive format");
+        byte version = buf.get();
+        if (version != VERSION && version != VERSION_SYSTEM_ZONE) throw new IllegalStateException("Unknown archive version " + version);
+        ZoneId zone = version == VERSION ? ZONE : ZoneId.systemDefault();
+        int count = buf.getInt();
+        long ts = buf.getLong();
+
+        ByteBuffer tsCol = section(buf), statusCol = section(buf), codeCol = section(buf), latencyCol = section(buf);
+        ByteBuffer dnsCol = section(buf), connectCol = section(buf), tlsCol = section(buf), ttfbCol = section(buf);
+        ByteBuffer dictCol = section(buf), errorCol = section(buf);
+
+        String[] dict = new String[(int) readVarint(dictCol)];
+        for (int i = 0; i < dict.length; i++) {
+            byte[] b = new byte[(int) readVarint(dictCol)];
+            dictCol.get(b);
+            dict[i] = new String(b, StandardCharsets.UTF_8);
+        }
+
+        List<HealthCheckResultResponse> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ts += readVarint(tsCol);
+            int errorIdx = (int) readVarint(errorCol);
+            rows.add(new HealthCheckResultResponse(
+                    null, // 아카이브엔 DB id 를 두지 않는다
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(ts), zone),
+                    STATUSES[statusCol.get()],
+                    readNullable(codeCol),
+                    readNullable(latencyCol),
+                    errorIdx == 0 ? null : dict[errorIdx - 1],
+                    readNullable(dnsCol),
+                    readNullable(connectCol),
+                    readNullable(tlsCol),
+                    readNullable(ttfbCol)));
+        }
+        return rows;
+    }
+
+    // 길이 접두 섹션을 잘라내고 본 버퍼는 다음 섹션으로
+    private static ByteBuffer section(ByteBuffer buf) {
+        int len = buf.getInt();
+        ByteBuffer s = buf.slice(buf.position(), len);
+        buf.position(buf.position() + len);
+        return s;
+    }
+
+    private static long epochMs(LocalDateTime t) {
+        return t.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static void writeNullable(OutputStream out, Integer v) {
+        writeVarint(out, v == null ? 0 : Math.max(0, v) + 1L);
+    }
+
+    private static Integer readNullable(ByteBuffer in) {
+        long v = readVarint(in);
+        return v == 0 ? null : (int) (v - 1);
+    }
+
+    private static void writeVarint(OutputStream out, long v) {
+        try {
+            while ((v & ~0x7FL) != 0) {
+                out.write((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            out.write((int) v);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // ByteArrayOutputStream 은 던지지 않음
+        }
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long v = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0 && shift < 64);
+        return v;
+    }
+}
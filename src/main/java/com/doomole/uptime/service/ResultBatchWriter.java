@@ -0,0 +1,264 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.domain.ResultRun;
+import com.doomole.uptime.dto.ProbeResult;
+import com.doomole.uptime.repo.ResultRollupRepo;
+import com.doomole.uptime.repo.ResultRunRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프로브 결과 비동기 배치 저장기.
+ * 결과는 bounded 큐에 쌓이고, 전용 스레드가 flushIntervalMs 또는 batchSize 중 먼저 도달하는 시점에
+ * health_check_result 다건 insert + health_check 상태 update + 분/시간 롤업 누적을 한 트랜잭션으로 묶어 flush 한다.
+ * (IDENTITY 키라 JPA save() 로는 JDBC 배치가 꺼지므로 JdbcTemplate 을 직접 사용)
+ * uptime.results.runs.enabled=true 면 결과 행 대신 run(같은 결과 연속 구간)만 저장한다 (ResultRunCompactor).
+ * 이때 health_check 상태 update 도 배치 안에서 모니터당 1행(마지막 결과 + fail_count 증분)으로 접는다.
+ */
+@Slf4j
+@Service
+public class ResultBatchWriter {
+    private static final String INSERT_RESULT =
+            "INSERT INTO health_check_result (health_check_id, observed_at, status, latency_ms, http_code, error_message, " +
+            "dns_ms, connect_ms, tls_ms, ttfb_ms) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // fail_count 는 DB 값 기준으로 누적 (엔티티를 읽지 않음)
+    private static final String UPDATE_STATE =
+            "UPDATE health_check SET status = ?, " +
+            "fail_count = CASE WHEN ? = 'DOWN' THEN fail_count + 1 ELSE 0 END, " +
+            "last_error = ?, last_checked_at = ?, response_time_ms = ?, updated_at = ? " +
+            "WHERE id = ?";
+
+    // 모니터당 1행: 배치가 전부 DOWN 이면 DB 값에 더하고, 중간에 UP 이 있었으면 끝의 연속 DOWN 수로 덮는다
+    private static final String UPDATE_STATE_COLLAPSED =
+            "UPDATE health_check SET status = ?, " +
+            "fail_count = CASE WHEN ? THEN fail_count + ? ELSE ? END, " +
+            "last_error = ?, last_checked_at = ?, response_time_ms = ?, updated_at = ? " +
+            "WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ResultRollupRepo resultRollupRepo;
+    private final ResultRunRepo resultRunRepo;
+    private final ResultRunCompactor resultRunCompactor;
+
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final BlockingQueue<ProbeResult> queue;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter batchCounter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ResultBatchWriter(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ResultRollupRepo resultRollupRepo,
+                             ResultRunRepo resultRunRepo,
+                             ResultRunCompactor resultRunCompactor,
+                             MeterRegistry meterRegistry,
+                             @Value("${uptime.results.writer.batchSize:500}") int batchSize,
+                             @Value("${uptime.results.writer.flushIntervalMs:1000}") long flushIntervalMs,
+                             @Value("${uptime.results.writer.queueCapacity:20000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.resultRollupRepo = resultRollupRepo;
+        this.resultRunRepo = resultRunRepo;
+        this.resultRunCompactor = resultRunCompactor;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.writtenCounter = meterRegistry.counter("uptime.results.writer.written");
+        this.droppedCounter = meterRegistry.counter("uptime.results.writer.dropped");
+        this.batchCounter = meterRegistry.counter("uptime.results.writer.batches");
+        meterRegistry.gauge("uptime.results.writer.queue", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = new Thread(this::loop, "result-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(5_000);
+        // 종료 직전 남은 결과 정리
+        List<ProbeResult> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) flush(rest);
+        if (resultRunRepo.isEnabled()) {
+            List<ResultRun> runs = resultRunCompactor.drain();
+            resultRunRepo.upsert(runs);
+            resultRunCompactor.markPersisted(runs, System.currentTimeMillis());
+        }
+    }
+
+    /** 논블로킹 적재. 큐가 가득 차면 버리고 false */
+    public boolean enqueue(ProbeResult result) {
+        if (queue.offer(result)) return true;
+        droppedCounter.increment();
+        log.warn("Result writer queue full, dropped result id={} observedAt={}",
+                result.healthCheckId(), result.observedAt());
+        return false;
+    }
+
+    private void loop() {
+        List<ProbeResult> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ProbeResult first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                // 첫 건 이후 flushIntervalMs 동안 batchSize 까지 모은다
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    if (batch.size() >= batchSize) break;
+                    long remain = deadline - System.nanoTime();
+                    if (remain <= 0) break;
+                    ProbeResult next = queue.poll(remain, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty()) flush(batch);
+                return;
+            } catch (Exception e) {
+                log.error("Result writer flush failed size={}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<ProbeResult> batch) {
+        try {
+            write(batch);
+        } catch (Exception e) {
+            // 삭제된 모니터 등 일부 행 때문에 배치 전체가 실패하면 건별로 재시도
+            log.warn("Batch write failed size={}, falling back to row-by-row: {}", batch.size(), e.toString());
+            for (ProbeResult r : batch) {
+                try {
+                    write(List.of(r));
+                } catch (Exception rowEx) {
+                    droppedCounter.increment();
+                    log.error("Result write failed id={} observedAt={}", r.healthCheckId(), r.observedAt(), rowEx);
+                }
+            }
+            return;
+        }
+        batchCounter.increment();
+        writtenCounter.increment(batch.size());
+    }
+
+    // 한 트랜잭션으로 쓰고, run 은 커밋된 뒤에만 저장 완료로 표시
+    private void write(List<ProbeResult> batch) {
+        long now = System.currentTimeMillis();
+        List<ResultRun> runs = resultRunRepo.isEnabled() ? resultRunCompactor.apply(batch, now) : List.of();
+        transactionTemplate.executeWithoutResult(tx -> writeBatch(batch, runs));
+        if (!runs.isEmpty()) resultRunCompactor.markPersisted(runs, now);
+    }
+
+    private void writeBatch(List<ProbeResult> batch, List<ResultRun> runs) {
+        if (resultRunRepo.isEnabled()) {
+            resultRunRepo.upsert(runs);
+            List<StateUpdate> states = collapseStates(batch);
+            jdbcTemplate.batchUpdate(UPDATE_STATE_COLLAPSED, states, states.size(), this::bindCollapsedState);
+        } else {
+            jdbcTemplate.batchUpdate(INSERT_RESULT, batch, batch.size(), this::bindResult);
+            jdbcTemplate.batchUpdate(UPDATE_STATE, batch, batch.size(), this::bindState);
+        }
+        resultRollupRepo.accumulate(batch);
+    }
+
+    // 배치 순서대로 모니터별 마지막 결과와 끝의 연속 DOWN 수
+    static List<StateUpdate> collapseStates(List<ProbeResult> batch) {
+        Map<Long, StateUpdate> byMonitor = new LinkedHashMap<>();
+        for (ProbeResult r : batch) {
+            StateUpdate prev = byMonitor.get(r.healthCheckId());
+            boolean down = r.status() == HealthStatus.DOWN;
+            boolean allDown = (prev == null || prev.allDown()) && down;
+            int downs = down ? (prev == null ? 0 : prev.trailingDown()) + 1 : 0;
+            byMonitor.put(r.healthCheckId(), new StateUpdate(r, allDown, downs));
+        }
+        return new ArrayList<>(byMonitor.values());
+    }
+
+    private void bindResult(PreparedStatement ps, ProbeResult r) throws SQLException {
+        ps.setLong(1, r.healthCheckId());
+        ps.setTimestamp(2, Timestamp.valueOf(r.observedAt()));
+        ps.setString(3, r.status().name());
+        setNullableInt(ps, 4, r.latencyMs());
+        setNullableInt(ps, 5, r.httpCode());
+        ps.setString(6, r.error());
+        setNullableInt(ps, 7, r.dnsMs());
+        setNullableInt(ps, 8, r.connectMs());
+        setNullableInt(ps, 9, r.tlsMs());
+        setNullableInt(ps, 10, r.ttfbMs());
+    }
+
+    private void bindState(PreparedStatement ps, ProbeResult r) throws SQLException {
+        ps.setString(1, r.status().name());
+        ps.setString(2, r.status().name());
+        ps.setString(3, r.status() == HealthStatus.DOWN ? r.error() : null);
+        ps.setTimestamp(4, Timestamp.valueOf(r.observedAt()));
+        if (r.latencyMs() == null) ps.setNull(5, Types.BIGINT);
+        else ps.setLong(5, r.latencyMs());
+        ps.setTimestamp(6, Timestamp.valueOf(r.observedAt()));
+        ps.setLong(7, r.healthCheckId());
+    }
+
+    private void bindCollapsedState(PreparedStatement ps, StateUpdate s) throws SQLException {
+        ProbeResult r = s.latest();
+        ps.setString(1, r.status().name());
+        ps.setBoolean(2, s.allDown());
+        ps.setInt(3, s.trailingDown());
+        ps.setInt(4, s.trailingDown());
+        ps.setString(5, r.status() == HealthStatus.DOWN ? r.error() : null);
+        ps.setTimestamp(6, Timestamp.valueOf(r.observedAt()));
+        if (r.latencyMs() == null) ps.setNull(7, Types.BIGINT);
+        else ps.setLong(7, r.latencyMs());
+        ps.setTimestamp(8, Timestamp.valueOf(r.observedAt()));
+        ps.setLong(9, r.healthCheckId());
+    }
+
+    /** 모니터 하나의 배치 내 상태 변화 요약 (allDown 이면 trailingDown 을 DB fail_count 에 더함) */
+    record StateUpdate(ProbeResult latest, boolean allDown, int trailingDown) {}
+
+    private static void setNullableInt(PreparedStatement ps, int idx, Integer v) throws SQLException {
+        if (v == null) ps.setNull(idx, Types.INTEGER);
+        else ps.setInt(idx, v);
+    }
+}
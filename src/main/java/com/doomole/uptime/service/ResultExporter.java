@@ -0,0 +1,131 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.dto.HealthCheckResultResponse;
+import com.doomole.uptime.exception.ClientErrorException;
+import com.doomole.uptime.repo.ResultQueryRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 결과 내보내기 (NDJSON / CSV).
+ * 아카이브 파일(일 단위)을 먼저, 그 다음 날부터는 DB 스트리밍 커서로 한 행씩 바로 응답에 쓴다.
+ * 행을 모으지 않으므로 내보내는 건수와 무관하게 메모리는 일정하다(아카이브는 하루치 파일 단위).
+ */
+@Service
+@RequiredArgsConstructor
+public class ResultExporter {
+    private static final int BUFFER_CHARS = 64 * 1024;
+    private static final String CSV_HEADER =
+            "id,observed_at,status,http_code,latency_ms,dns_ms,connect_ms,tls_ms,ttfb_ms,error_message\n";
+
+    private final ResultQueryRepo resultQueryRepo;
+    private final ResultArchive resultArchive;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        public final String contentType;
+        public final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+
+    public Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ClientErrorException("format 은 ndjson 또는 csv 만 허용됩니다.");
+        }
+    }
+
+    /** [from, to) 구간을 오래된 순으로 out 에 쓴다 */
+    public void export(Long healthCheckId, Format format, LocalDateTime from, LocalDateTime to, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+        if (format == Format.CSV) writer.write(CSV_HEADER);
+
+        // 아카이브는 하루 단위로 완결되어 있으므로, 마지막 아카이브 날짜 다음 날부터 DB 를 읽으면 겹치지 않는다
+        LocalDateTime dbFrom = from;
+        if (resultArchive.isEnabled()) {
+            List<LocalDate> days = new ArrayList<>(resultArchive.days(healthCheckId));
+            Collections.reverse(days);
+            for (LocalDate day : days) {
+                if (day.isBefore(from.toLocalDate()) || !day.atStartOfDay().isBefore(to)) continue;
+                for (HealthCheckResultResponse r : resultArchive.readDay(healthCheckId, day)) {
+                    if (!r.observedAt().isBefore(from) && r.observedAt().isBefore(to)) write(writer, format, r);
+                }
+            }
+            if (!days.isEmpty()) {
+                LocalDateTime afterArchive = days.get(days.size() - 1).plusDays(1).atStartOfDay();
+                if (afterArchive.isAfter(dbFrom)) dbFrom = afterArchive;
+            }
+        }
+
+        if (dbFrom.isBefore(to)) {
+            try {
+                resultQueryRepo.stream(healthCheckId, dbFrom, to, r -> {
+                    try {
+                        write(writer, format, r);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // 클라이언트가 끊으면 커서도 중단
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        writer.flush();
+    }
+
+    private void write(Writer w, Format format, HealthCheckResultResponse r) throws IOException {
+        if (format == Format.NDJSON) {
+            w.write(objectMapper.writeValueAsString(r));
+            w.write('\n');
+            return;
+        }
+        w.write(r.id() == null ? "" : r.id().toString());
+        w.write(',');
+        w.write(r.observedAt().toString());
+        w.write(',');
+        w.write(r.status().name());
+        cell(w, r.httpCode());
+        cell(w, r.latencyMs());
+        cell(w, r.dnsMs());
+        cell(w, r.connectMs());
+        cell(w, r.tlsMs());
+        cell(w, r.ttfbMs());
+        w.write(',');
+        if (r.errorMessage() != null) w.write(csvEscape(r.errorMessage()));
+        w.write('\n');
+    }
+
+    private static void cell(Writer w, Integer v) throws IOException {
+        w.write(',');
+        if (v != null) w.write(v.toString());
+    }
+
+    private static String csvEscape(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
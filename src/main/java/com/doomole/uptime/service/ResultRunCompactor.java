@@ -0,0 +1,97 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.ResultRun;
+import com.doomole.uptime.dto.ProbeResult;
+import com.doomole.uptime.repo.ResultRunRepo;
+import com.doomole.uptime.scheduler.ShardCoordinator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 결과 배치를 모니터별 열린 run 에 접어 넣고, 이번에 저장할 run 목록을 돌려준다.
+ * - 상태/코드/오류가 바뀌거나 지연이 크게 튀거나 간격이 벌어지면 새 run 을 연다 (새 run 은 즉시 저장)
+ * - 이어지는 결과는 메모리에서만 늘리고 flushMs 마다 또는 run 이 닫힐 때 같은 행을 갱신한다
+ * 저장 완료 표시는 트랜잭션 커밋 후 markPersisted 로 하므로, 실패한 배치의 run 은 다음 배치에 다시 실린다.
+ * ResultBatchWriter 의 writer 스레드에서만 호출된다(동기화 없음).
+ */
+@Component
+class ResultRunCompactor {
+    private final ResultRunRepo resultRunRepo;
+    private final ShardCoordinator shardCoordinator;
+    private final long flushMs;
+    private final Duration maxGap;
+    private final int latencyShiftMs;
+    private final double latencyShiftRatio;
+
+    private final Map<Long, ResultRun> open = new HashMap<>();
+    private final List<ResultRun> closedPending = new ArrayList<>();
+    private long generation;
+
+    ResultRunCompactor(ResultRunRepo resultRunRepo,
+                       ShardCoordinator shardCoordinator,
+                       @Value("${uptime.results.runs.flushMs:60000}") long flushMs,
+                       @Value("${uptime.results.runs.maxGapMs:300000}") long maxGapMs,
+                       @Value("${uptime.results.runs.latencyShiftMs:200}") int latencyShiftMs,
+                       @Value("${uptime.results.runs.latencyShiftRatio:1.0}") double latencyShiftRatio) {
+        this.resultRunRepo = resultRunRepo;
+        this.shardCoordinator = shardCoordinator;
+        this.flushMs = flushMs;
+        this.maxGap = Duration.ofMillis(maxGapMs);
+        this.latencyShiftMs = latencyShiftMs;
+        this.latencyShiftRatio = latencyShiftRatio;
+    }
+
+    List<ResultRun> apply(List<ProbeResult> batch, long nowMs) {
+        // 샤드를 내준 모니터는 다른 노드가 이어 쓰므로 남은 것만 저장하고 잊는다 (돌아오면 DB 에서 다시 읽음)
+        long g = shardCoordinator.generation();
+        if (g != generation) {
+            open.values().removeIf(run -> {
+                if (shardCoordinator.owns(run.getHealthCheckId())) return false;
+                if (run.isDirty()) closedPending.add(run);
+                return true;
+            });
+            generation = g;
+        }
+
+        Set<Long> unknown = new LinkedHashSet<>();
+        for (ProbeResult r : batch) if (!open.containsKey(r.healthCheckId())) unknown.add(r.healthCheckId());
+        if (!unknown.isEmpty()) open.putAll(resultRunRepo.latest(unknown));
+
+        for (ProbeResult r : batch) {
+            ResultRun run = open.get(r.healthCheckId());
+            if (run != null && !r.observedAt().isAfter(run.getEndedAt())) continue; // 이미 접힌 결과(재시도)
+            if (run != null && run.accepts(r, maxGap, latencyShiftMs, latencyShiftRatio)) {
+                run.extend(r);
+            } else {
+                if (run != null && run.isDirty()) closedPending.add(run);
+                open.put(r.healthCheckId(), ResultRun.open(r));
+            }
+        }
+
+        List<ResultRun> toWrite = new ArrayList<>(closedPending);
+        for (ResultRun run : open.values()) {
+            if (run.needsWrite(nowMs, flushMs)) toWrite.add(run);
+        }
+        return toWrite;
+    }
+
+    void markPersisted(List<ResultRun> runs, long nowMs) {
+        for (ResultRun run : runs) run.markPersisted(nowMs);
+        closedPending.removeIf(run -> !run.isDirty());
+    }
+
+    /** 종료 시: 저장 안 된 늘어난 부분 전부 */
+    List<ResultRun> drain() {
+        List<ResultRun> toWrite = new ArrayList<>(closedPending);
+        for (ResultRun run : open.values()) if (run.isDirty()) toWrite.add(run);
+        return toWrite;
+    }
+}
@@ -0,0 +1,366 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.HealthCheckChangedEvent;
+import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.domain.LatencyHistogram;
+import com.doomole.uptime.domain.LatencyPercentiles;
+import com.doomole.uptime.domain.WindowStats;
+import com.doomole.uptime.dto.ProbeResult;
+import com.doomole.uptime.repo.ResultRollupRepo;
+import com.doomole.uptime.repo.ResultRollupRepo.Grain;
+import com.doomole.uptime.repo.ResultRollupRepo.RollupRow;
+import com.doomole.uptime.scheduler.ShardCoordinator;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 모니터별 1h/24h 슬라이딩 window 집계 (최근 1시간은 분 버킷 60개, 그 앞은 시간 버킷 23개).
+ * 결과가 들어올 때와 분이 넘어갈 때만 갱신하고, 갱신마다 불변 스냅샷을 volatile 로 게시하므로 읽기는 락이 없다.
+ * 분위수도 같은 방식: 버킷마다 지연 히스토그램 칸(희소)을 들고 스냅샷을 만들 때 window 별로 더한다.
+ * 클러스터 모드에선 모든 모니터를 들고 있으므로 메모리 추정치를 uptime.window.bytes 로 노출 (모니터당 약 10KB).
+ * 기동 시 롤업 테이블(최근 1시간대는 분, 그 이전은 시간 단위)로 다시 채운다.
+ * 클러스터 모드에선 내 샤드가 아닌 모니터를 매 분 분 롤업으로 따라잡는다(최대 1~2분 지연).
+ */
+@Slf4j
+@Service
+public class SlidingWindowStats {
+    static final int HOUR_MINUTES = 60;
+    static final int DAY_MINUTES = 1440;
+    private static final int SYNC_LOOKBACK_MINUTES = 3;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final ResultRollupRepo resultRollupRepo;
+    private final ShardCoordinator shardCoordinator;
+    private final Map<Long, MonitorWindow> windows = new ConcurrentHashMap<>();
+
+    public SlidingWindowStats(ResultRollupRepo resultRollupRepo, ShardCoordinator shardCoordinator,
+                              MeterRegistry meterRegistry) {
+        this.resultRollupRepo = resultRollupRepo;
+        this.shardCoordinator = shardCoordinator;
+
+        meterRegistry.gauge("uptime.window.monitors", windows, Map::size);
+        meterRegistry.gauge("uptime.window.bytes", windows,
+                m -> m.values().stream().mapToLong(MonitorWindow::estimatedBytes).sum());
+    }
+
+    @PostConstruct
+    void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        long head = epochMinute(now);
+        // 최근 1시간은 분 단위로 정확하게, 그 이전 24h 구간은 시간 롤업을 시간 시작 분에 몰아 넣는다
+        LocalDateTime minuteFrom = now.minusMinutes(HOUR_MINUTES).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime hourFrom = now.minusMinutes(DAY_MINUTES - 1).truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        LocalDateTime end = now.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+
+        resultRollupRepo.scan(Grain.HOUR, hourFrom, minuteFrom, row -> load(row, head, false));
+        resultRollupRepo.scan(Grain.MINUTE, minuteFrom, end, row -> load(row, head, false));
+        log.info("Sliding windows rebuilt monitors={}", windows.size());
+    }
+
+    /** 프로브 결과 1건 반영 */
+    public void record(ProbeResult r) {
+        long minute = epochMinute(r.observedAt());
+        Integer latency = r.latencyMs();
+        window(r.healthCheckId(), minute).add(minute, 1, r.status() == HealthStatus.UP ? 1 : 0,
+                latency == null ? 0 : 1, latency == null ? 0 : latency, latency, latency, false,
+                null, latency == null ? MonitorWindow.NONE : LatencyHistogram.bucketOf(latency));
+    }
+
+    /** 락 없는 읽기. 아직 결과가 없는 모니터면 null */
+    public Snapshot get(Long healthCheckId) {
+        MonitorWindow w = windows.get(healthCheckId);
+        return w == null ? null : w.snapshot;
+    }
+
+    // 결과가 뜸한 모니터도 window 가 흘러가도록 매 분 밀어준다
+    @Scheduled(cron = "2 * * * * *")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        long head = epochMinute(now);
+        windows.values().forEach(w -> w.advance(head));
+
+        if (shardCoordinator.isEnabled()) {
+            LocalDateTime from = now.truncatedTo(ChronoUnit.MINUTES).minusMinutes(SYNC_LOOKBACK_MINUTES);
+            LocalDateTime end = now.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+            resultRollupRepo.scan(Grain.MINUTE, from, end, row -> {
+                if (!shardCoordinator.owns(row.healthCheckId())) load(row, head, true);
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHealthCheckChanged(HealthCheckChangedEvent event) {
+        if (event.isDeleted()) windows.remove(event.healthCheckId());
+    }
+
+    private void load(RollupRow row, long head, boolean replace) {
+        long minute = epochMinute(row.bucketStart());
+        window(row.healthCheckId(), head).add(minute, row.total(), row.up(), row.latencyCount(), row.latencySum(),
+                row.latencyMin(), row.latencyMax(), replace, row.histogram(), MonitorWindow.NONE);
+    }
+
+    private MonitorWindow window(Long healthCheckId, long head) {
+        return windows.computeIfAbsent(healthCheckId, id -> new MonitorWindow(head));
+    }
+
+    private static long epochMinute(LocalDateTime t) {
+        return t.atZone(ZONE).toEpochSecond() / 60;
+    }
+
+    public record Snapshot(WindowStats hour, WindowStats day, LatencyPercentiles hourLatency, LatencyPercentiles dayLatency) {
+        static final Snapshot EMPTY = new Snapshot(WindowStats.EMPTY, WindowStats.EMPTY,
+                LatencyPercentiles.EMPTY, LatencyPercentiles.EMPTY);
+    }
+
+    /**
+     * 최근 60분은 분 버킷, 그 앞 23시간은 시간 버킷 (합 83칸).
+     * hour window = 분 버킷 (head-60, head]. day window = 분 버킷 + 시작 분이 head-1440 보다 뒤인 시간 버킷이라,
+     * 24h 의 꼬리는 시간 단위로 잘린다(최대 59분 짧음). 분 버킷은 hour window 를 벗어날 때 자기 시간 버킷으로 접힌다.
+     * 스냅샷은 갱신마다 83칸을 훑어 다시 만든다 (합계, min/max, 히스토그램 칸 합계).
+     */
+    static final class MonitorWindow {
+        static final int NONE = -1;
+        private static final int TAIL_HOURS = (DAY_MINUTES - HOUR_MINUTES) / HOUR_MINUTES;
+        // window 칸 합계용 (갱신은 모니터 락 안에서 끝나므로 스레드별 하나면 된다)
+        private static final ThreadLocal<long[]> SCRATCH = ThreadLocal.withInitial(() -> new long[LatencyHistogram.BUCKETS]);
+
+        private final Buckets minutes = new Buckets(HOUR_MINUTES);
+        private final Buckets hours = new Buckets(TAIL_HOURS);
+        private long head;
+
+        volatile Snapshot snapshot = Snapshot.EMPTY;
+
+        MonitorWindow(long head) {
+            this.head = head;
+        }
+
+        /**
+         * @param h      롤업 행의 히스토그램 (없으면 null)
+         * @param sample 결과 1건의 히스토그램 칸 (없으면 NONE)
+         */
+        synchronized void add(long minute, long t, long u, long lc, long ls, Integer min, Integer max, boolean replace,
+                              LatencyHistogram h, int sample) {
+            if (minute > head) advanceLocked(minute);
+            if (minute > head - HOUR_MINUTES) {
+                put(minutes, minute, t, u, lc, ls, min, max, replace, h, sample);
+            } else {
+                // 시간 버킷으로 접힌 분은 분 단위로 교체할 수 없다 (롤업 동기화는 최근 몇 분만 다시 읽어 여기 오지 않음)
+                long hour = Math.floorDiv(minute, HOUR_MINUTES);
+                if (replace || !inDay(hour, head)) return; // window 밖 (너무 늦게 도착)
+                put(hours, hour, t, u, lc, ls, min, max, false, h, sample);
+            }
+            publish();
+        }
+
+        synchronized void advance(long to) {
+            if (to <= head) return;
+            advanceLocked(to);
+            publish();
+        }
+
+        synchronized long estimatedBytes() {
+            return minutes.estimatedBytes() + hours.estimatedBytes();
+        }
+
+        private static void put(Buckets b, long key, long t, long u, long lc, long ls, Integer min, Integer max,
+                                boolean replace, LatencyHistogram h, int sample) {
+            int i = b.slot(key);
+            // 롤업 동기화(replace)는 같은 분 버킷을 새 값으로 교체
+            if (b.key[i] != key || replace) b.reset(i, key);
+            b.add(i, t, u, lc, ls, min, max);
+            if (sample != NONE) b.addHist(i, sample, 1);
+            if (h != null) h.forEachBucket((bucket, c) -> b.addHist(i, bucket, c));
+        }
+
+        private void advanceLocked(long to) {
+            if (to - head >= DAY_MINUTES) {
+                minutes.clear();
+                hours.clear();
+                head = to;
+                return;
+            }
+            for (long m = head + 1; m <= to; m++) {
+                // 시작 분이 m-1440 이하가 된 시간 버킷은 day 에서 빠진다
+                long expired = Math.floorDiv(m - DAY_MINUTES, HOUR_MINUTES);
+                int e = hours.slot(expired);
+                if (hours.key[e] == expired) hours.reset(e, NONE);
+
+                long out = m - HOUR_MINUTES; // hour window 에서 빠지는 분 → 자기 시간 버킷으로
+                int i = minutes.slot(out);
+                if (minutes.key[i] != out) continue;
+                long hour = Math.floorDiv(out, HOUR_MINUTES);
+                if (inDay(hour, m)) {
+                    int j = hours.slot(hour);
+                    if (hours.key[j] != hour) hours.reset(j, hour);
+                    hours.merge(j, minutes, i);
+                }
+                minutes.reset(i, NONE);
+            }
+            head = to;
+        }
+
+        private void publish() {
+            long[] counts = SCRATCH.get();
+            Arrays.fill(counts, 0);
+            Totals acc = new Totals();
+            for (int i = 0; i < minutes.key.length; i++) {
+                if (minutes.key[i] != NONE) acc.add(minutes, i, counts);
+            }
+            WindowStats hour = acc.stats();
+            LatencyPercentiles hourLatency = LatencyPercentiles.of(counts, acc.histTotal, hour.latencyMax());
+            for (int i = 0; i < hours.key.length; i++) {
+                if (hours.key[i] != NONE) acc.add(hours, i, counts);
+            }
+            WindowStats day = acc.stats();
+            snapshot = new Snapshot(hour, day, hourLatency, LatencyPercentiles.of(counts, acc.histTotal, day.latencyMax()));
+        }
+
+        private static boolean inDay(long hour, long head) {
+            return hour * HOUR_MINUTES > head - DAY_MINUTES;
+        }
+    }
+
+    /** window 하나를 훑으며 더하는 합계 */
+    private static final class Totals {
+        long total, up, latCount, latSum, histTotal;
+        int min = MonitorWindow.NONE, max = MonitorWindow.NONE;
+
+        void add(Buckets b, int i, long[] counts) {
+            total += b.total[i];
+            up += b.up[i];
+            latCount += b.latCount[i];
+            latSum += b.latSum[i];
+            if (b.latMin[i] != MonitorWindow.NONE) min = min == MonitorWindow.NONE ? b.latMin[i] : Math.min(min, b.latMin[i]);
+            if (b.latMax[i] != MonitorWindow.NONE) max = Math.max(max, b.latMax[i]);
+            long[] hist = b.hist[i];
+            if (hist == null) return;
+            for (long entry : hist) {
+                counts[Buckets.bucketOf(entry)] += Buckets.countOf(entry);
+                histTotal += Buckets.countOf(entry);
+            }
+        }
+
+        WindowStats stats() {
+            return new WindowStats(total, up, latCount, latSum,
+                    min == MonitorWindow.NONE ? null : min, max == MonitorWindow.NONE ? null : max);
+        }
+    }
+
+    /**
+     * 같은 폭 버킷들의 링 (필드별 원시 배열).
+     * 히스토그램은 버킷마다 비어있지 않은 칸만 (칸 번호 << 48 | 카운트) long 배열로 든다. 분당 결과는 보통 몇 건이라 한두 칸이다.
+     */
+    private static final class Buckets {
+        // 칸당 고정 비용: key/total/up/latCount/latSum(8*5) + latMin/latMax(4*2) + hist 참조(4)
+        private static final int SLOT_BYTES = 8 * 5 + 4 * 2 + 4;
+        private static final int ARRAY_BYTES = 16; // 배열 헤더
+        private static final int COUNT_BITS = 48;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        final long[] key;
+        final long[] total;
+        final long[] up;
+        final long[] latCount;
+        final long[] latSum;
+        final int[] latMin;
+        final int[] latMax;
+        final long[][] hist; // 결과가 있는 버킷만 할당
+        private int histEntries;
+
+        Buckets(int size) {
+            key = new long[size];
+            total = new long[size];
+            up = new long[size];
+            latCount = new long[size];
+            latSum = new long[size];
+            latMin = new int[size];
+            latMax = new int[size];
+            hist = new long[size][];
+            clear();
+        }
+
+        int slot(long k) {
+            return (int) Math.floorMod(k, (long) key.length);
+        }
+
+        void add(int i, long t, long u, long lc, long ls, Integer min, Integer max) {
+            total[i] += t;
+            up[i] += u;
+            latCount[i] += lc;
+            latSum[i] += ls;
+            if (min != null) latMin[i] = latMin[i] == MonitorWindow.NONE ? min : Math.min(latMin[i], min);
+            if (max != null) latMax[i] = Math.max(latMax[i], max);
+        }
+
+        void addHist(int i, int bucket, long count) {
+            long[] h = hist[i];
+            if (h != null) {
+                for (int k = 0; k < h.length; k++) {
+                    if (bucketOf(h[k]) == bucket) {
+                        h[k] += count;
+                        return;
+                    }
+                }
+            }
+            // 칸이 몇 개뿐이라 딱 맞는 크기로 늘린다
+            long[] grown = h == null ? new long[1] : Arrays.copyOf(h, h.length + 1);
+            grown[grown.length - 1] = ((long) bucket << COUNT_BITS) | count;
+            hist[i] = grown;
+            histEntries++;
+        }
+
+        // from 의 j 번 버킷을 i 번 버킷에 더한다 (분 → 시간 접기)
+        void merge(int i, Buckets from, int j) {
+            add(i, from.total[j], from.up[j], from.latCount[j], from.latSum[j],
+                    from.latMin[j] == MonitorWindow.NONE ? null : from.latMin[j],
+                    from.latMax[j] == MonitorWindow.NONE ? null : from.latMax[j]);
+            long[] h = from.hist[j];
+            if (h == null) return;
+            for (long entry : h) addHist(i, bucketOf(entry), countOf(entry));
+        }
+
+        void reset(int i, long k) {
+            if (hist[i] != null) histEntries -= hist[i].length;
+            key[i] = k;
+            total[i] = up[i] = latCount[i] = latSum[i] = 0;
+            latMin[i] = latMax[i] = MonitorWindow.NONE;
+            hist[i] = null;
+        }
+
+        void clear() {
+            Arrays.fill(key, MonitorWindow.NONE);
+            Arrays.fill(total, 0);
+            Arrays.fill(up, 0);
+            Arrays.fill(latCount, 0);
+            Arrays.fill(latSum, 0);
+            Arrays.fill(latMin, MonitorWindow.NONE);
+            Arrays.fill(latMax, MonitorWindow.NONE);
+            Arrays.fill(hist, null);
+            histEntries = 0;
+        }
+
+        long estimatedBytes() {
+            long histArrays = Arrays.stream(hist).filter(h -> h != null).count();
+            return 8L * ARRAY_BYTES + (long) key.length * SLOT_BYTES + histArrays * ARRAY_BYTES + histEntries * 8L;
+        }
+
+        static int bucketOf(long entry) {
+            return (int) (entry >>> COUNT_BITS);
+        }
+
+        static long countOf(long entry) {
+            return entry & COUNT_MASK;
+        }
+    }
+}
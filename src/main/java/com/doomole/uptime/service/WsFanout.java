@@ -0,0 +1,16 @@
+package com.doomole.uptime.service;
+
+import java.util.function.Consumer;
+
+/**
+ * WebSocket 메시지를 다른 노드로 전파하는 계층.
+ * 발행한 노드는 자기 로컬 세션에 직접 전달하고, send 는 "다른 노드"에만 보낸다.
+ * 받는 노드는 subscribe 로 등록한 handler 에서 자기 로컬 세션(SimpMessagingTemplate)에 전달한다.
+ * 구현: local(단일 노드, 기본) / redis(pub/sub) — uptime.ws.fanout 으로 선택.
+ */
+public interface WsFanout {
+
+    void send(String channel, Object payload);
+
+    <T> void subscribe(String channel, Class<T> type, Consumer<T> handler);
+}
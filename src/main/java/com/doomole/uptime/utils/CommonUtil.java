@@ -35,4 +35,13 @@ public final class CommonUtil {
             throw new IllegalArgumentException("Invalid URL: " + rawUrl, e);
         }
     }
+
+    /**
+     * splitmix64 finalizer. 연속된 id 를 고르게 흩뿌릴 때 사용 (샤드 배정, 스케줄 위상 등).
+     */
+    public static long mix64(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
 }
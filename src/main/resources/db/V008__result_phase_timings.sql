@@ -0,0 +1,6 @@
+-- 프로브 구간별 소요시간 (커넥션 재사용 시 dns/connect/tls 는 NULL)
+ALTER TABLE health_check_result
+    ADD COLUMN dns_ms     INT NULL,
+    ADD COLUMN connect_ms INT NULL,
+    ADD COLUMN tls_ms     INT NULL,
+    ADD COLUMN ttfb_ms    INT NULL;
@@ -0,0 +1,90 @@
+-- 분/시간 결과 롤업 (요약 API 는 이 테이블만 읽는다)
+-- hist_0..hist_8: 지연 <=50, <=100, <=250, <=500, <=1000, <=2500, <=5000, <=10000, 초과 (ms)
+CREATE TABLE health_check_rollup_minute (
+    health_check_id BIGINT   NOT NULL,
+    bucket_start    DATETIME NOT NULL,
+    total           BIGINT   NOT NULL DEFAULT 0,
+    up_count        BIGINT   NOT NULL DEFAULT 0,
+    latency_count   BIGINT   NOT NULL DEFAULT 0,
+    latency_sum     BIGINT   NOT NULL DEFAULT 0,
+    latency_min     INT      NULL,
+    latency_max     INT      NULL,
+    hist_0          BIGINT   NOT NULL DEFAULT 0,
+    hist_1          BIGINT   NOT NULL DEFAULT 0,
+    hist_2          BIGINT   NOT NULL DEFAULT 0,
+    hist_3          BIGINT   NOT NULL DEFAULT 0,
+    hist_4          BIGINT   NOT NULL DEFAULT 0,
+    hist_5          BIGINT   NOT NULL DEFAULT 0,
+    hist_6          BIGINT   NOT NULL DEFAULT 0,
+    hist_7          BIGINT   NOT NULL DEFAULT 0,
+    hist_8          BIGINT   NOT NULL DEFAULT 0,
+    PRIMARY KEY (health_check_id, bucket_start),
+    KEY idx_minute_bucket (bucket_start)
+) ENGINE = InnoDB;
+
+CREATE TABLE health_check_rollup_hour (
+    health_check_id BIGINT   NOT NULL,
+    bucket_start    DATETIME NOT NULL,
+    total           BIGINT   NOT NULL DEFAULT 0,
+    up_count        BIGINT   NOT NULL DEFAULT 0,
+    latency_count   BIGINT   NOT NULL DEFAULT 0,
+    latency_sum     BIGINT   NOT NULL DEFAULT 0,
+    latency_min     INT      NULL,
+    latency_max     INT      NULL,
+    hist_0          BIGINT   NOT NULL DEFAULT 0,
+    hist_1          BIGINT   NOT NULL DEFAULT 0,
+    hist_2          BIGINT   NOT NULL DEFAULT 0,
+    hist_3          BIGINT   NOT NULL DEFAULT 0,
+    hist_4          BIGINT   NOT NULL DEFAULT 0,
+    hist_5          BIGINT   NOT NULL DEFAULT 0,
+    hist_6          BIGINT   NOT NULL DEFAULT 0,
+    hist_7          BIGINT   NOT NULL DEFAULT 0,
+    hist_8          BIGINT   NOT NULL DEFAULT 0,
+    PRIMARY KEY (health_check_id, bucket_start),
+    KEY idx_hour_bucket (bucket_start)
+) ENGINE = InnoDB;
+
+-- 기존 원본 결과로 1회 백필 (애플리케이션 기동 전에 실행)
+INSERT INTO health_check_rollup_minute (health_check_id, bucket_start, total, up_count, latency_count, latency_sum,
+                       latency_min, latency_max, hist_0, hist_1, hist_2, hist_3, hist_4, hist_5, hist_6, hist_7, hist_8)
+SELECT health_check_id,
+       DATE_FORMAT(observed_at, '%Y-%m-%d %H:%i:00'),
+       COUNT(*),
+       SUM(CASE WHEN status = 'UP' THEN 1 ELSE 0 END),
+       COUNT(latency_ms),
+       COALESCE(SUM(latency_ms), 0),
+       MIN(latency_ms),
+       MAX(latency_ms),
+       SUM(CASE WHEN latency_ms <= 50 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 50 AND latency_ms <= 100 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 100 AND latency_ms <= 250 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 250 AND latency_ms <= 500 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 500 AND latency_ms <= 1000 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 1000 AND latency_ms <= 2500 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 2500 AND latency_ms <= 5000 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 5000 AND latency_ms <= 10000 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 10000 THEN 1 ELSE 0 END)
+FROM health_check_result
+GROUP BY health_check_id, DATE_FORMAT(observed_at, '%Y-%m-%d %H:%i:00');
+
+INSERT INTO health_check_rollup_hour (health_check_id, bucket_start, total, up_count, latency_count, latency_sum,
+                       latency_min, latency_max, hist_0, hist_1, hist_2, hist_3, hist_4, hist_5, hist_6, hist_7, hist_8)
+SELECT health_check_id,
+       DATE_FORMAT(observed_at, '%Y-%m-%d %H:00:00'),
+       COUNT(*),
+       SUM(CASE WHEN status = 'UP' THEN 1 ELSE 0 END),
+       COUNT(latency_ms),
+       COALESCE(SUM(latency_ms), 0),
+       MIN(latency_ms),
+       MAX(latency_ms),
+       SUM(CASE WHEN latency_ms <= 50 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 50 AND latency_ms <= 100 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 100 AND latency_ms <= 250 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 250 AND latency_ms <= 500 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 500 AND latency_ms <= 1000 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 1000 AND latency_ms <= 2500 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 2500 AND latency_ms <= 5000 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 5000 AND latency_ms <= 10000 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN latency_ms > 10000 THEN 1 ELSE 0 END)
+FROM health_check_result
+GROUP BY health_check_id, DATE_FORMAT(observed_at, '%Y-%m-%d %H:00:00');
@@ -0,0 +1,3 @@
+-- 분위수용 로그 버킷 지연 히스토그램 (LatencyHistogram 직렬화: 비어있지 않은 칸만 varint 쌍)
+ALTER TABLE health_check_rollup_minute ADD COLUMN latency_hist BLOB NULL;
+ALTER TABLE health_check_rollup_hour   ADD COLUMN latency_hist BLOB NULL;
@@ -0,0 +1,23 @@
+-- health_check_result 를 observed_at 일 단위 RANGE 파티션으로 전환
+-- 적용 후 uptime.results.partitioning.enabled=true 로 ResultPartitionManager 를 켠다.
+-- 주의: 테이블 재작성(ALTER ... PARTITION BY)이 일어나므로 점검 시간에 실행. 큰 테이블이면 pt-online-schema-change 권장.
+
+-- 1) MySQL 파티션 테이블은 외래키를 가질 수 없다 (health_check 삭제 시 결과 정리는 보관기간으로 대체)
+SET @fk := (SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS
+            WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'health_check_result' LIMIT 1);
+SET @sql := IF(@fk IS NULL, 'DO 0', CONCAT('ALTER TABLE health_check_result DROP FOREIGN KEY ', @fk));
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+-- 2) 모든 유니크 키는 파티션 컬럼을 포함해야 한다
+ALTER TABLE health_check_result
+    MODIFY observed_at DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, observed_at),
+    ADD KEY idx_result_check_observed (health_check_id, observed_at);
+
+-- 3) 오늘 이전은 p_history 하나로, 이후는 pmax (일 파티션은 ResultPartitionManager 가 pmax 를 쪼개 만든다)
+SET @sql := CONCAT(
+    'ALTER TABLE health_check_result PARTITION BY RANGE (TO_DAYS(observed_at)) (',
+    'PARTITION p_history VALUES LESS THAN (TO_DAYS(''', CURDATE(), ''')), ',
+    'PARTITION pmax VALUES LESS THAN MAXVALUE)');
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
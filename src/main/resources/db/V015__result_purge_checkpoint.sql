@@ -0,0 +1,9 @@
+-- 보관기간 정리 진행 위치 (chunk 와 같은 트랜잭션으로 갱신, 재기동 시 이어서 진행)
+CREATE TABLE result_purge_checkpoint (
+    job        VARCHAR(64) NOT NULL PRIMARY KEY,
+    cutoff     DATETIME(6) NOT NULL,
+    next_id    BIGINT      NOT NULL,
+    deleted    BIGINT      NOT NULL DEFAULT 0,
+    status     VARCHAR(16) NOT NULL,   -- RUNNING | DONE
+    updated_at DATETIME    NOT NULL
+) ENGINE = InnoDB;
@@ -0,0 +1,8 @@
+-- 결과 아카이브(ResultArchiveJob)는 모니터·일 단위로 읽고 지운다: (health_check_id, observed_at) 인덱스 필요
+-- V014(파티션) 를 적용했다면 이미 있으므로 건너뛴다.
+SET @idx := (SELECT COUNT(*) FROM information_schema.STATISTICS
+             WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'health_check_result'
+               AND INDEX_NAME = 'idx_result_check_observed');
+SET @sql := IF(@idx > 0, 'DO 0',
+    'ALTER TABLE health_check_result ADD KEY idx_result_check_observed (health_check_id, observed_at)');
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
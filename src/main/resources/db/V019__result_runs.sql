@@ -0,0 +1,18 @@
+-- 결과 run 저장 모드 (uptime.results.runs.enabled=true): 같은 상태/코드/오류가 이어지는 결과를 한 행으로
+-- health_check_result 대신 여기에 쓰며, 행은 run 시작 시 INSERT, 이후엔 같은 행을 UPDATE 로 늘린다.
+CREATE TABLE health_check_result_run (
+    id              BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    health_check_id BIGINT      NOT NULL,
+    started_at      DATETIME(6) NOT NULL,
+    ended_at        DATETIME(6) NOT NULL,
+    status          VARCHAR(16) NOT NULL,
+    http_code       INT         NULL,
+    error_message   TEXT        NULL,
+    sample_count    INT         NOT NULL,
+    latency_count   INT         NOT NULL DEFAULT 0,
+    latency_sum     BIGINT      NOT NULL DEFAULT 0,
+    latency_min     INT         NULL,
+    latency_max     INT         NULL,
+    UNIQUE KEY uk_run_check_started (health_check_id, started_at),
+    KEY idx_run_ended (ended_at)
+) ENGINE = InnoDB;
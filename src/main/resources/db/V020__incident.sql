@@ -0,0 +1,17 @@
+-- 장애(incident) 색인: IncidentTracker 가 UP→DOWN 전이 때 열고 DOWN→UP 전이 때 닫는다
+-- 모니터당 열린 incident(ended_at IS NULL)는 최대 1개
+CREATE TABLE incident (
+    id              BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    health_check_id BIGINT      NOT NULL,
+    started_at      DATETIME(6) NOT NULL,
+    ended_at        DATETIME(6) NULL,
+    duration_ms     BIGINT      NULL,
+    first_error     TEXT        NULL,
+    first_http_code INT         NULL,
+    -- 열린 행만 health_check_id, 닫히면 NULL → UNIQUE 로 "모니터당 열린 incident 1개" 보장 (NULL 은 중복 허용)
+    open_check_id   BIGINT AS (IF(ended_at IS NULL, health_check_id, NULL)) STORED,
+    UNIQUE KEY uk_incident_open (open_check_id),
+    KEY idx_incident_check_started (health_check_id, started_at),
+    KEY idx_incident_started (started_at),
+    KEY idx_incident_open (ended_at)
+) ENGINE = InnoDB;
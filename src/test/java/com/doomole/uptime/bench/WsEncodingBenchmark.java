@@ -0,0 +1,80 @@
+package com.doomole.uptime.bench;
+
+import com.doomole.uptime.config.StompEncodingInterceptor;
+import com.doomole.uptime.dto.ChatMessage;
+import com.doomole.uptime.dto.HealthCheckEvent;
+import com.doomole.uptime.dto.HealthEventBatch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * STOMP 페이로드 인코딩 비교 (JSON vs CBOR): 프레임당 바이트 수와 직렬화 CPU(ns/op).
+ * 테스트가 아니라 수동 실행용 main — 예) IDE 에서 실행하거나
+ *   ./gradlew testClasses && java -cp "build/classes/java/test:build/classes/java/main:<runtime classpath>" \
+ *       com.doomole.uptime.bench.WsEncodingBenchmark
+ * - json        : 현재 경로 (브로커가 Jackson 으로 1회 직렬화)
+ * - cbor(trans) : CBOR 세션용 추가 비용 (JSON → CBOR 변환, 브로드캐스트당 1회)
+ * - cbor(direct): 참고용, 객체에서 바로 CBOR
+ */
+public class WsEncodingBenchmark {
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper json = new ObjectMapper();
+        CBORMapper cbor = new CBORMapper();
+
+        HealthCheckEvent event = HealthCheckEvent.builder()
+                .healthCheckId(1234L).status("UP").httpCode(200).latencyMs(87)
+                .dnsMs(3).connectMs(12).tlsMs(25).ttfbMs(40)
+                .observedAt(System.currentTimeMillis())
+                .build();
+        HealthCheckEvent down = HealthCheckEvent.builder()
+                .healthCheckId(1235L).status("DOWN").httpCode(0).latencyMs(15000)
+                .error("Connection timed out").observedAt(System.currentTimeMillis())
+                .build();
+        List<HealthEventBatch.Item> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(HealthEventBatch.Item.from(i % 10 == 0 ? down : event));
+        }
+        HealthEventBatch batch = new HealthEventBatch(42, System.currentTimeMillis(), items);
+        ChatMessage chat = ChatMessage.builder()
+                .roomId("ops").sender("alice").content("api-gateway 다시 올라왔습니다").type("CHAT")
+                .timestamp(System.currentTimeMillis())
+                .build();
+
+        System.out.printf("%-22s %10s %10s %12s %12s %12s%n",
+                "payload", "json B", "cbor B", "json ns/op", "trans ns/op", "direct ns/op");
+        run("HealthCheckEvent", event, json, cbor);
+        run("HealthCheckEvent(down)", down, json, cbor);
+        run("HealthEventBatch x100", batch, json, cbor);
+        run("ChatMessage", chat, json, cbor);
+    }
+
+    private static void run(String name, Object payload, ObjectMapper json, CBORMapper cbor) throws Exception {
+        byte[] jsonBytes = json.writeValueAsBytes(payload);
+        byte[] cborBytes = StompEncodingInterceptor.toCbor(json, cbor, jsonBytes);
+        int iterations = jsonBytes.length > 1024 ? ITERATIONS / 20 : ITERATIONS;
+
+        double jsonNs = time(() -> json.writeValueAsBytes(payload), iterations);
+        double transNs = time(() -> StompEncodingInterceptor.toCbor(json, cbor, jsonBytes), iterations);
+        double directNs = time(() -> cbor.writeValueAsBytes(payload), iterations);
+
+        System.out.printf("%-22s %10d %10d %12.0f %12.0f %12.0f%n",
+                name, jsonBytes.length, cborBytes.length, jsonNs, transNs, directNs);
+    }
+
+    private static double time(Callable<byte[]> op, int iterations) throws Exception {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) sink += op.call().length;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) sink += op.call().length;
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) System.out.print(""); // JIT 가 결과를 버리지 않게
+        return (double) elapsed / iterations;
+    }
+}
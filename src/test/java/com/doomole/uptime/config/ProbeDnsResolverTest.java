@@ -0,0 +1,192 @@
+package com.doomole.uptime.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.dns.DnsAddressResolverGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * probeDnsResolver 를 로컬 stub 네임서버(UDP)에 붙여 캐시 동작을 확인한다.
+ * 레코드 TTL 은 길게(1시간) 주고 maxTtl=1s 로 잘리는지, NXDOMAIN 이 negativeTtl 동안 캐시되는지 본다.
+ */
+class ProbeDnsResolverTest {
+    private static final String KNOWN = "probe.test";
+    private static final String MISSING = "missing.test";
+    private static final byte[] KNOWN_ADDRESS = {10, 1, 2, 3};
+    private static final int RECORD_TTL_S = 3_600;
+    private static final int MAX_TTL_S = 1;
+
+    private StubDnsServer stub;
+    private NioEventLoopGroup loop;
+    private DnsAddressResolverGroup group;
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubDnsServer();
+        loop = new NioEventLoopGroup(1);
+        group = new WebClientConfig().probeDnsResolver(registry, 0, MAX_TTL_S, 30, "127.0.0.1:" + stub.port());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        group.close();
+        loop.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+        stub.close();
+    }
+
+    @Test
+    void answersFromCacheUntilMaxTtl() throws Exception {
+        assertThat(resolve(KNOWN).getAddress().getAddress()).isEqualTo(KNOWN_ADDRESS);
+        int queries = stub.queries(KNOWN);
+        assertThat(queries).isPositive();
+
+        // 캐시 히트: 네임서버로 가지 않는다
+        assertThat(resolve(KNOWN).getAddress().getAddress()).isEqualTo(KNOWN_ADDRESS);
+        assertThat(stub.queries(KNOWN)).isEqualTo(queries);
+        assertThat(cacheCount("hit")).isPositive();
+
+        // 레코드 TTL(1h)이 maxTtl(1s)로 잘려 다시 질의한다
+        Thread.sleep(TimeUnit.SECONDS.toMillis(MAX_TTL_S) + 200);
+        resolve(KNOWN);
+        assertThat(stub.queries(KNOWN)).isGreaterThan(queries);
+    }
+
+    @Test
+    void cachesNxdomainForNegativeTtl() throws Exception {
+        assertThatThrownBy(() -> resolve(MISSING)).hasCauseInstanceOf(UnknownHostException.class);
+        int queries = stub.queries(MISSING);
+        assertThat(queries).isPositive();
+
+        assertThatThrownBy(() -> resolve(MISSING)).hasCauseInstanceOf(UnknownHostException.class);
+        assertThat(stub.queries(MISSING)).isEqualTo(queries);
+        assertThat(cacheCount("negative")).isPositive();
+    }
+
+    private InetSocketAddress resolve(String host) throws ExecutionException, InterruptedException, TimeoutException {
+        AddressResolver<InetSocketAddress> resolver = group.getResolver(loop.next());
+        return resolver.resolve(InetSocketAddress.createUnresolved(host, 80)).get(5, TimeUnit.SECONDS);
+    }
+
+    private double cacheCount(String result) {
+        return registry.get("uptime.probe.dns.cache").tag("result", result).counter().count();
+    }
+
+    /**
+     * 최소 UDP DNS 서버: KNOWN 의 A 질의엔 고정 주소, 그 외 타입엔 빈 NOERROR, 모르는 이름엔 NXDOMAIN.
+     * 질의 이름(검색 도메인이 붙은 것 포함)별로 횟수를 센다.
+     */
+    private static final class StubDnsServer implements AutoCloseable {
+        private static final int TYPE_A = 1;
+        private static final int RCODE_NXDOMAIN = 3;
+
+        private final DatagramSocket socket;
+        private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        private final Thread thread;
+
+        StubDnsServer() throws SocketException {
+            socket = new DatagramSocket(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            thread = new Thread(this::serve, "stub-dns");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        // name 으로 시작하는 질의 수 (검색 도메인 시도 포함)
+        int queries(String name) {
+            return counts.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith(name))
+                    .mapToInt(e -> e.getValue().get())
+                    .sum();
+        }
+
+        private void serve() {
+            byte[] buf = new byte[512];
+            while (!socket.isClosed()) {
+                try {
+                    DatagramPacket in = new DatagramPacket(buf, buf.length);
+                    socket.receive(in);
+                    byte[] out = answer(ByteBuffer.wrap(in.getData(), 0, in.getLength()));
+                    socket.send(new DatagramPacket(out, out.length, in.getSocketAddress()));
+                } catch (Exception e) {
+                    if (socket.isClosed()) return;
+                }
+            }
+        }
+
+        private byte[] answer(ByteBuffer query) {
+            int id = query.getShort(0) & 0xffff;
+            int flags = query.getShort(2) & 0xffff;
+
+            // 질문 섹션: 라벨들 + 0, QTYPE, QCLASS
+            StringBuilder name = new StringBuilder();
+            int pos = 12;
+            for (int len = query.get(pos) & 0xff; len != 0; len = query.get(pos) & 0xff) {
+                if (name.length() > 0) name.append('.');
+                for (int i = 1; i <= len; i++) name.append((char) query.get(pos + i));
+                pos += len + 1;
+            }
+            int qtype = query.getShort(pos + 1) & 0xffff;
+            int questionEnd = pos + 5;
+            String qname = name.toString().toLowerCase();
+            counts.computeIfAbsent(qname, k -> new AtomicInteger()).incrementAndGet();
+
+            boolean known = qname.equals(KNOWN);
+            boolean withAnswer = known && qtype == TYPE_A;
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeShort(out, id);
+            writeShort(out, 0x8000 | (flags & 0x0100) | 0x0080 | (known ? 0 : RCODE_NXDOMAIN)); // QR, RD 복사, RA
+            writeShort(out, 1);                  // QDCOUNT
+            writeShort(out, withAnswer ? 1 : 0); // ANCOUNT
+            writeShort(out, 0);
+            writeShort(out, 0);
+            out.write(query.array(), query.arrayOffset() + 12, questionEnd - 12);
+            if (withAnswer) {
+                writeShort(out, 0xc00c); // 질문 이름 포인터
+                writeShort(out, TYPE_A);
+                writeShort(out, 1);      // IN
+                writeShort(out, RECORD_TTL_S >>> 16);
+                writeShort(out, RECORD_TTL_S & 0xffff);
+                writeShort(out, KNOWN_ADDRESS.length);
+                out.write(KNOWN_ADDRESS, 0, KNOWN_ADDRESS.length);
+            }
+            return out.toByteArray();
+        }
+
+        private static void writeShort(ByteArrayOutputStream out, int v) {
+            out.write((v >>> 8) & 0xff);
+            out.write(v & 0xff);
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            socket.close();
+            thread.join(1_000);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.doomole.uptime.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+    private static final int LAST = LatencyHistogram.BUCKETS - 1;
+    private static final int MAX_EXACT = (1 << 21) - 1; // 마지막 칸 상한
+
+    @Test
+    void smallValuesHaveOwnBucket() {
+        for (int v = 0; v < 16; v++) {
+            assertThat(LatencyHistogram.indexOf(v)).isEqualTo(v);
+            assertThat(LatencyHistogram.upperBound(v)).isEqualTo(v);
+        }
+    }
+
+    @Test
+    void powerOfTwoEdges() {
+        for (int k = 4; k <= 20; k++) {
+            int p = 1 << k;
+            int first = LatencyHistogram.indexOf(p);
+            // 2^k 는 구간의 첫 칸, 2^k - 1 은 이전 구간의 마지막 칸
+            assertThat(first).isEqualTo(16 + (k - 4) * 16);
+            assertThat(LatencyHistogram.indexOf(p - 1)).isEqualTo(first - 1);
+            assertThat(LatencyHistogram.upperBound(first - 1)).isEqualTo(p - 1);
+            assertThat(LatencyHistogram.upperBound(LatencyHistogram.indexOf(p + 1))).isGreaterThanOrEqualTo(p + 1);
+        }
+    }
+
+    @Test
+    void upperBoundCoversValueWithinOneSixteenth() {
+        int prev = -1;
+        for (int v = 0; v <= MAX_EXACT; v += v < 4096 ? 1 : 97) {
+            int idx = LatencyHistogram.indexOf(v);
+            int ub = LatencyHistogram.upperBound(idx);
+            assertThat(idx).isGreaterThanOrEqualTo(prev);
+            assertThat(ub).isGreaterThanOrEqualTo(v);
+            assertThat(ub - v).isLessThanOrEqualTo(Math.max(0, v / 16));
+            prev = idx;
+        }
+    }
+
+    @Test
+    void valuesBeyondRangeFallIntoLastBucket() {
+        assertThat(LatencyHistogram.indexOf(MAX_EXACT)).isEqualTo(LAST);
+        assertThat(LatencyHistogram.indexOf(MAX_EXACT + 1)).isEqualTo(LAST);
+        assertThat(LatencyHistogram.indexOf(Integer.MAX_VALUE)).isEqualTo(LAST);
+        assertThat(LatencyHistogram.upperBound(LAST)).isEqualTo(MAX_EXACT);
+        assertThat(LatencyHistogram.bucketOf(-5)).isZero();
+    }
+
+    @Test
+    void percentileUsesBucketUpperBoundCappedAtMax() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int v = 1; v <= 100; v++) h.record(v);
+
+        assertThat(h.count()).isEqualTo(100);
+        assertThat(h.percentile(0.10)).isEqualTo(10);  // 16 미만은 정확
+        assertThat(h.percentile(0.50)).isEqualTo(51);  // 50 → [50, 51] 칸
+        assertThat(h.percentile(0.99)).isEqualTo(99);  // 99 → [96, 99] 칸
+        assertThat(h.percentile(1.0)).isEqualTo(100);  // 칸 상한 103 이지만 관측 최대 100
+        assertThat(h.percentiles()).isEqualTo(new LatencyPercentiles(
+                h.percentile(0.50), h.percentile(0.90), h.percentile(0.95), h.percentile(0.99)));
+    }
+
+    @Test
+    void emptyHistogramHasNoPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertThat(h.percentile(0.5)).isNull();
+        assertThat(h.max()).isNull();
+        assertThat(h.percentiles()).isEqualTo(LatencyPercentiles.EMPTY);
+        assertThat(h.toBytes()).hasSize(1);
+    }
+
+    @Test
+    void varintSerializationRoundTrip() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 0; i < 300; i++) h.record(3);       // 카운트 2바이트 varint
+        for (int i = 0; i < 20_000; i++) h.record(250);  // 카운트 3바이트 varint
+        h.record(MAX_EXACT + 10);                          // 칸 번호 차이 큰 값
+
+        LatencyHistogram back = LatencyHistogram.fromBytes(h.toBytes());
+
+        assertThat(back.count()).isEqualTo(h.count());
+        assertThat(back.max()).isEqualTo(MAX_EXACT); // 복원 시 max 는 최대 칸의 상한
+        long[] expected = new long[LatencyHistogram.BUCKETS];
+        long[] actual = new long[LatencyHistogram.BUCKETS];
+        h.forEachBucket((i, c) -> expected[i] = c);
+        back.forEachBucket((i, c) -> actual[i] = c);
+        assertThat(actual).isEqualTo(expected);
+        assertThat(back.percentile(0.5)).isEqualTo(h.percentile(0.5));
+    }
+
+    @Test
+    void fromBytesToleratesMissingOrUnknownFormat() {
+        assertThat(LatencyHistogram.fromBytes(null).count()).isZero();
+        assertThat(LatencyHistogram.fromBytes(new byte[]{1}).count()).isZero();
+        assertThat(LatencyHistogram.fromBytes(new byte[]{9, 0, 1}).count()).isZero();
+    }
+
+    @Test
+    void mergeAddsCounts() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(10);
+        b.record(1_000);
+        b.record(1_000);
+
+        a.merge(b);
+        a.merge(new LatencyHistogram());
+
+        assertThat(a.count()).isEqualTo(3);
+        assertThat(a.max()).isEqualTo(1_000);
+        assertThat(a.percentile(0.34)).isEqualTo(a.percentile(1.0));
+    }
+}
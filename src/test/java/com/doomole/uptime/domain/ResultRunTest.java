@@ -0,0 +1,84 @@
+package com.doomole.uptime.domain;
+
+import com.doomole.uptime.dto.ProbeResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultRunTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final Duration MAX_GAP = Duration.ofMinutes(5);
+    private static final int SHIFT_MS = 200;
+    private static final double SHIFT_RATIO = 1.0;
+
+    @Test
+    void acceptsSameOutcomeWithinGapAndLatencyBand() {
+        ResultRun run = ResultRun.open(up(0, 100));
+
+        assertThat(accepts(run, up(60, 100))).isTrue();
+        assertThat(accepts(run, up(60, 300))).isTrue();  // |300-100| = 200 ≤ max(200, 100)
+        assertThat(accepts(run, up(60, null))).isTrue(); // 지연 없음은 비교하지 않음
+    }
+
+    @Test
+    void rejectsDifferentStatusCodeOrError() {
+        ResultRun run = ResultRun.open(up(0, 100));
+
+        assertThat(accepts(run, result(60, HealthStatus.DOWN, 200, 100, null))).isFalse();
+        assertThat(accepts(run, result(60, HealthStatus.UP, 204, 100, null))).isFalse();
+        assertThat(accepts(run, result(60, HealthStatus.UP, 200, 100, "slow"))).isFalse();
+    }
+
+    @Test
+    void rejectsAfterMaxGap() {
+        ResultRun run = ResultRun.open(up(0, 100));
+
+        assertThat(accepts(run, up(MAX_GAP.toSeconds(), 100))).isTrue();
+        assertThat(accepts(run, up(MAX_GAP.toSeconds() + 1, 100))).isFalse();
+    }
+
+    @Test
+    void rejectsLatencyShiftBeyondBand() {
+        ResultRun run = ResultRun.open(up(0, 100));
+        assertThat(accepts(run, up(60, 301))).isFalse();
+
+        // 평균이 크면 ratio 쪽 폭(평균 x 1.0)이 적용된다
+        ResultRun slow = ResultRun.open(up(0, 1_000));
+        assertThat(accepts(slow, up(60, 1_900))).isTrue();
+        assertThat(accepts(slow, up(60, 2_001))).isFalse();
+    }
+
+    @Test
+    void extendTracksCountLatencyAndEnd() {
+        ResultRun run = ResultRun.open(up(0, 100));
+        run.markPersisted(0);
+        run.extend(up(60, 300));
+        run.extend(up(120, null));
+
+        assertThat(run.getCount()).isEqualTo(3);
+        assertThat(run.getLatencyCount()).isEqualTo(2);
+        assertThat(run.getLatencyMin()).isEqualTo(100);
+        assertThat(run.getLatencyMax()).isEqualTo(300);
+        assertThat(run.avgLatencyMs()).isEqualTo(200.0);
+        assertThat(run.getEndedAt()).isEqualTo(T0.plusSeconds(120));
+        assertThat(run.isDirty()).isTrue();
+        assertThat(run.needsWrite(1_000, 60_000)).isFalse();
+        assertThat(run.needsWrite(60_000, 60_000)).isTrue();
+    }
+
+    private static boolean accepts(ResultRun run, ProbeResult r) {
+        return run.accepts(r, MAX_GAP, SHIFT_MS, SHIFT_RATIO);
+    }
+
+    private static ProbeResult up(long atSeconds, Integer latencyMs) {
+        return result(atSeconds, HealthStatus.UP, 200, latencyMs, null);
+    }
+
+    private static ProbeResult result(long atSeconds, HealthStatus status, Integer httpCode, Integer latencyMs, String error) {
+        return new ProbeResult(1L, T0.plusSeconds(atSeconds), status, httpCode, latencyMs, error,
+                null, null, null, null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.doomole.uptime.repo;
+
+import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.domain.ResultRun;
+import com.doomole.uptime.dto.HealthCheckResultResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultRunRepoTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void expandsNewestFirstEvenlyAcrossRun() {
+        ResultRun run = run(3, T0, T0.plusMinutes(2), 3, 301);
+        List<HealthCheckResultResponse> out = new ArrayList<>();
+
+        ResultRunRepo.expand(run, 10, out);
+
+        assertThat(out).extracting(HealthCheckResultResponse::observedAt)
+                .containsExactly(T0.plusMinutes(2), T0.plusMinutes(1), T0);
+        assertThat(out).allSatisfy(r -> {
+            assertThat(r.status()).isEqualTo(HealthStatus.UP);
+            assertThat(r.httpCode()).isEqualTo(200);
+            assertThat(r.latencyMs()).isEqualTo(100); // 301/3 반올림
+            assertThat(r.id()).isNull();
+        });
+    }
+
+    @Test
+    void stopsAtMax() {
+        List<HealthCheckResultResponse> out = new ArrayList<>();
+
+        ResultRunRepo.expand(run(5, T0, T0.plusMinutes(4), 0, 0), 2, out);
+
+        assertThat(out).extracting(HealthCheckResultResponse::observedAt)
+                .containsExactly(T0.plusMinutes(4), T0.plusMinutes(3));
+        assertThat(out).extracting(HealthCheckResultResponse::latencyMs).containsOnlyNulls();
+    }
+
+    @Test
+    void singleSampleRunUsesEndedAt() {
+        List<HealthCheckResultResponse> out = new ArrayList<>();
+
+        ResultRunRepo.expand(run(1, T0, T0, 1, 42), 10, out);
+
+        assertThat(out).singleElement().satisfies(r -> {
+            assertThat(r.observedAt()).isEqualTo(T0);
+            assertThat(r.latencyMs()).isEqualTo(42);
+        });
+    }
+
+    private static ResultRun run(int count, LocalDateTime start, LocalDateTime end, int latencyCount, long latencySum) {
+        return new ResultRun(1L, start, end, HealthStatus.UP, 200, null, count, latencyCount, latencySum,
+                latencyCount == 0 ? null : 1, latencyCount == 0 ? null : 1_000);
+    }
+}
@@ -0,0 +1,177 @@
+package com.doomole.uptime.scheduler;
+
+import com.doomole.uptime.support.LocalRedis;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로컬 Redis 로 샤드 리스 획득/반납, heartbeat 만료, 노드 합류/이탈 시 재분배를 확인한다.
+ */
+class ShardCoordinatorTest {
+    private static final int SHARDS = 64;
+    private static final long TTL_MS = 500;
+    private static final String SHARD_KEY = "uptime:cluster:shard:";
+    private static final String NODES_KEY = "uptime:cluster:nodes";
+
+    private LocalRedis redis;
+    private StringRedisTemplate template;
+    private final long[] monitorOfShard = new long[SHARDS]; // 샤드마다 그 샤드로 가는 모니터 id 하나
+
+    @BeforeEach
+    void setUp() {
+        redis = LocalRedis.connect();
+        template = redis.template();
+        ShardCoordinator probe = node("probe");
+        BitSet found = new BitSet(SHARDS);
+        for (long id = 1; found.cardinality() < SHARDS; id++) {
+            int shard = probe.shardOf(id);
+            if (!found.get(shard)) {
+                found.set(shard);
+                monitorOfShard[shard] = id;
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (redis != null) redis.close();
+    }
+
+    @Test
+    void singleNodeAcquiresAllLeasesAndReleasesThemOnLeave() {
+        ShardCoordinator a = node("node-a");
+        a.heartbeat();
+
+        assertThat(owned(a).cardinality()).isEqualTo(SHARDS);
+        for (int s = 0; s < SHARDS; s++) {
+            assertThat(template.opsForValue().get(SHARD_KEY + s)).isEqualTo("node-a");
+            assertThat(template.getExpire(SHARD_KEY + s, TimeUnit.MILLISECONDS)).isBetween(1L, TTL_MS);
+        }
+
+        a.leave();
+        for (int s = 0; s < SHARDS; s++) {
+            assertThat(template.hasKey(SHARD_KEY + s)).isFalse();
+        }
+        assertThat(template.opsForZSet().score(NODES_KEY, "node-a")).isNull();
+    }
+
+    @Test
+    void doesNotTakeOrReleaseLeaseHeldByAnotherNode() {
+        template.opsForValue().set(SHARD_KEY + 0, "other", Duration.ofMinutes(1));
+        ShardCoordinator a = node("node-a");
+        a.heartbeat();
+
+        assertThat(a.owns(monitorOfShard[0])).isFalse();
+        assertThat(owned(a).cardinality()).isEqualTo(SHARDS - 1);
+
+        a.leave();
+        assertThat(template.opsForValue().get(SHARD_KEY + 0)).isEqualTo("other");
+    }
+
+    @Test
+    void joiningNodeTakesItsShareOnlyAfterOwnerReleasesIt() {
+        ShardCoordinator a = node("node-a");
+        ShardCoordinator b = node("node-b");
+        a.heartbeat();
+        long genBefore = a.generation();
+
+        // a 가 아직 리스를 쥐고 있으므로 b 는 아무것도 못 가진다 (동시 소유 없음)
+        b.heartbeat();
+        assertThat(owned(b).isEmpty()).isTrue();
+        assertThat(owned(a).cardinality()).isEqualTo(SHARDS);
+
+        // a 가 b 몫을 반납한 뒤 b 가 가져간다
+        a.heartbeat();
+        assertThat(a.generation()).isGreaterThan(genBefore);
+        assertThat(owned(a).cardinality()).isLessThan(SHARDS);
+        assertDisjoint(a, b);
+
+        b.heartbeat();
+        assertPartitioned(a, b);
+        assertThat(owned(a).isEmpty()).isFalse();
+        assertThat(owned(b).isEmpty()).isFalse();
+    }
+
+    @Test
+    void leavingNodeSharesMoveToRemainingNode() {
+        ShardCoordinator a = node("node-a");
+        ShardCoordinator b = node("node-b");
+        converge(a, b);
+
+        b.leave();
+        a.heartbeat();
+
+        assertThat(owned(a).cardinality()).isEqualTo(SHARDS);
+        assertThat(a.status().get("liveNodes")).isEqualTo(List.of("node-a"));
+    }
+
+    @Test
+    void crashedNodeIsDroppedAfterHeartbeatExpiry() throws InterruptedException {
+        ShardCoordinator a = node("node-a");
+        ShardCoordinator b = node("node-b");
+        converge(a, b);
+
+        // b 는 leave 없이 사라짐: TTL 이 지나기 전엔 a 가 b 몫을 못 가진다
+        a.heartbeat();
+        assertThat(owned(a).cardinality()).isLessThan(SHARDS);
+
+        Thread.sleep(TTL_MS + 200);
+        a.heartbeat();
+        assertThat(owned(a).cardinality()).isEqualTo(SHARDS);
+        assertThat(template.opsForZSet().score(NODES_KEY, "node-b")).isNull();
+    }
+
+    @Test
+    void disabledClusterOwnsEverythingWithoutRedis() {
+        ShardCoordinator single = new ShardCoordinator(null, false, SHARDS, TTL_MS, "solo");
+        single.heartbeat();
+        single.leave();
+
+        for (long id = 1; id <= 1000; id++) assertThat(single.owns(id)).isTrue();
+    }
+
+    private ShardCoordinator node(String id) {
+        return new ShardCoordinator(template, true, SHARDS, TTL_MS, id);
+    }
+
+    private void converge(ShardCoordinator a, ShardCoordinator b) {
+        a.heartbeat();
+        b.heartbeat();
+        a.heartbeat();
+        b.heartbeat();
+        assertPartitioned(a, b);
+    }
+
+    private BitSet owned(ShardCoordinator c) {
+        BitSet owned = new BitSet(SHARDS);
+        for (int s = 0; s < SHARDS; s++) {
+            if (c.owns(monitorOfShard[s])) owned.set(s);
+        }
+        return owned;
+    }
+
+    private void assertDisjoint(ShardCoordinator a, ShardCoordinator b) {
+        assertThat(owned(a).intersects(owned(b))).isFalse();
+    }
+
+    // 모든 샤드가 정확히 한 노드에만
+    private void assertPartitioned(ShardCoordinator a, ShardCoordinator b) {
+        assertDisjoint(a, b);
+        BitSet union = owned(a);
+        union.or(owned(b));
+        assertThat(union.cardinality()).isEqualTo(SHARDS);
+        for (int s = 0; s < SHARDS; s++) {
+            String owner = a.owns(monitorOfShard[s]) ? "node-a" : "node-b";
+            assertThat(template.opsForValue().get(SHARD_KEY + s)).isEqualTo(owner);
+        }
+    }
+}
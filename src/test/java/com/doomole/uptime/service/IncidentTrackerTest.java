@@ -0,0 +1,161 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.CheckType;
+import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.domain.MonitorDescriptor;
+import com.doomole.uptime.dto.IncidentResponse;
+import com.doomole.uptime.dto.ProbeResult;
+import com.doomole.uptime.repo.IncidentRepo;
+import com.doomole.uptime.scheduler.ShardCoordinator;
+import com.doomole.uptime.service.IncidentTracker.State;
+import com.doomole.uptime.service.IncidentTracker.Transition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * State.observe: windowM 개 중 thresholdN 개 실패로 열고, 최신 UP + 임계 미만으로 닫는다.
+ * record: 샤드 변경 뒤 열린 목록 reload 는 writer 스레드에서 하고, 그동안의 결과는 모았다가 판정한다.
+ */
+class IncidentTrackerTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void opensAtFirstFailureOfStreak() {
+        State s = new State(false);
+
+        assertThat(s.observe(up(0), 3, 2)).isNull();
+        assertThat(s.observe(down(1, 503, "HTTP 503"), 3, 2)).isNull();
+        assertThat(s.observe(up(2), 3, 2)).isNull();
+        Transition t = s.observe(down(3, null, "connect timed out"), 3, 2);
+
+        // 실패 사이에 UP 이 끼어도 window 안이면 같은 연속: 시작 시각·에러는 첫 실패 것
+        assertThat(t).isEqualTo(new Transition(true, at(1), "HTTP 503", 503));
+        assertThat(s.down).isTrue();
+        assertThat(s.observe(down(4, null, "x"), 3, 2)).isNull();
+    }
+
+    @Test
+    void closesAtFirstUpAfterLastFailure() {
+        State s = new State(false);
+        s.observe(down(0, null, "timeout"), 3, 2);
+        assertThat(s.observe(down(1, null, "timeout"), 3, 2).opened()).isTrue();
+
+        assertThat(s.observe(up(2), 3, 2)).isNull();                 // D,D,U → 아직 2개
+        assertThat(s.observe(down(3, null, "timeout"), 3, 2)).isNull(); // U,D → 복구 시각 초기화
+        Transition t = s.observe(up(4), 3, 2);                     // U,D,U → 1개
+
+        assertThat(t).isEqualTo(new Transition(false, at(4), null, null));
+        assertThat(s.down).isFalse();
+    }
+
+    @Test
+    void closesAtEarlierUpWhenRecoveryIsUninterrupted() {
+        State s = new State(false);
+        s.observe(down(0, null, "timeout"), 3, 2);
+        s.observe(down(1, null, "timeout"), 3, 2);
+
+        assertThat(s.observe(up(2), 3, 2)).isNull();
+        assertThat(s.observe(up(3), 3, 2)).isEqualTo(new Transition(false, at(2), null, null));
+    }
+
+    @Test
+    void failuresBelowThresholdAreForgottenOnceWindowIsClean() {
+        State s = new State(false);
+        s.observe(down(0, 500, "HTTP 500"), 3, 2);
+        s.observe(up(1), 3, 2);
+        s.observe(up(2), 3, 2);
+        s.observe(up(3), 3, 2); // window 에서 실패가 빠짐
+
+        s.observe(down(4, null, "connect refused"), 3, 2);
+        Transition t = s.observe(down(5, null, "connect refused"), 3, 2);
+
+        assertThat(t).isEqualTo(new Transition(true, at(4), "connect refused", null));
+    }
+
+    @Test
+    void singleFailureThresholdFlipsEachTime() {
+        State s = new State(false);
+
+        assertThat(s.observe(down(0, null, "timeout"), 1, 1)).isEqualTo(new Transition(true, at(0), "timeout", null));
+        assertThat(s.observe(up(1), 1, 1)).isEqualTo(new Transition(false, at(1), null, null));
+        assertThat(s.observe(down(2, null, "timeout"), 1, 1)).isEqualTo(new Transition(true, at(2), "timeout", null));
+    }
+
+    @Test
+    void startsDownWhenIncidentAlreadyOpen() {
+        State s = new State(true);
+
+        // DB 에 열린 incident 가 있으면 다시 열지 않고, 첫 UP 으로 닫는다
+        assertThat(s.observe(down(0, null, "timeout"), 3, 2)).isNull();
+        assertThat(s.observe(up(1), 3, 2)).isEqualTo(new Transition(false, at(1), null, null));
+    }
+
+    @Test
+    void fullSixtyFourResultWindow() {
+        State s = new State(false);
+        for (int i = 0; i < 63; i++) {
+            assertThat(s.observe(down(i, null, "timeout"), 64, 64)).isNull();
+        }
+        assertThat(s.observe(down(63, null, "timeout"), 64, 64)).isEqualTo(new Transition(true, at(0), "timeout", null));
+
+        // 64 개 전부 실패였다가 UP 하나로 63 개 → 임계 미만
+        assertThat(s.observe(up(64), 64, 64)).isEqualTo(new Transition(false, at(64), null, null));
+    }
+
+    // 샤드가 바뀐 뒤 열린 목록 조회가 느려도 record 는 기다리지 않고, 다시 읽은 목록 기준으로 나중에 판정한다
+    @Test
+    void reloadAfterShardChangeDoesNotBlockRecord() throws Exception {
+        IncidentRepo repo = mock(IncidentRepo.class);
+        MonitorRegistry registry = mock(MonitorRegistry.class);
+        ShardCoordinator shards = mock(ShardCoordinator.class);
+        CountDownLatch dbSlow = new CountDownLatch(1);
+        when(registry.get(1L)).thenReturn(new MonitorDescriptor(1L, "m", CheckType.HTTP, "http://x", 60, 1, 1, true));
+        when(shards.generation()).thenReturn(0L);
+        when(repo.findOpen()).thenReturn(List.of()).thenAnswer(inv -> {
+            dbSlow.await();
+            return List.of(new IncidentResponse(9L, 1L, T0.minusHours(1), null, null, "timeout", null));
+        });
+
+        IncidentTracker tracker = new IncidentTracker(repo, registry, shards, new SimpleMeterRegistry());
+        tracker.load();
+        when(shards.generation()).thenReturn(1L);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            tracker.record(down(0, null, "timeout"));
+            tracker.record(up(1));
+        });
+        dbSlow.countDown();
+
+        // 다른 노드가 연 incident 를 이어받아: DOWN 은 그대로, UP 에서 닫는다
+        verify(repo, timeout(2_000)).close(1L, at(1));
+        verify(repo, never()).open(anyLong(), any(), any(), any());
+        tracker.stop();
+    }
+
+    private static ProbeResult up(int atSeconds) {
+        return new ProbeResult(1L, at(atSeconds), HealthStatus.UP, 200, 100, null, null, null, null, null);
+    }
+
+    private static ProbeResult down(int atSeconds, Integer httpCode, String error) {
+        return new ProbeResult(1L, at(atSeconds), HealthStatus.DOWN, httpCode, null, error, null, null, null, null);
+    }
+
+    private static LocalDateTime at(int seconds) {
+        return T0.plusSeconds(seconds);
+    }
+}
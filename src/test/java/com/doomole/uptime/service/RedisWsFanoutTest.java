@@ -0,0 +1,100 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.support.LocalRedis;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 노드 두 개(A, B)를 같은 로컬 Redis 에 붙여 교차 전달과 origin 필터를 확인한다.
+ * 큐가 찼을 때 드롭 카운터는 Redis 없이 확인.
+ */
+class RedisWsFanoutTest {
+    private static final String CHANNEL = "test";
+
+    private final List<AutoCloseable> cleanup = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (int i = cleanup.size() - 1; i >= 0; i--) cleanup.get(i).close();
+    }
+
+    @Test
+    void deliversToOtherNodeButNotBackToOrigin() throws Exception {
+        LocalRedis redis = LocalRedis.connect();
+        cleanup.add(redis);
+
+        BlockingQueue<Ping> atA = new LinkedBlockingQueue<>();
+        BlockingQueue<Ping> atB = new LinkedBlockingQueue<>();
+        Node a = node(redis, 100, atA);
+        Node b = node(redis, 100, atB);
+
+        a.fanout.send(CHANNEL, new Ping("from-a", 1));
+        assertThat(atB.poll(5, TimeUnit.SECONDS)).isEqualTo(new Ping("from-a", 1));
+
+        // a 의 수신 큐는 순서대로 처리되므로 b 메시지를 받았으면 자기 메시지는 이미 걸러진 것
+        b.fanout.send(CHANNEL, new Ping("from-b", 2));
+        assertThat(atA.poll(5, TimeUnit.SECONDS)).isEqualTo(new Ping("from-b", 2));
+        assertThat(atA).isEmpty();
+        assertThat(atB).isEmpty();
+
+        assertThat(count(a.registry, "uptime.ws.fanout.published")).isEqualTo(1);
+        assertThat(count(a.registry, "uptime.ws.fanout.delivered")).isEqualTo(1);
+        assertThat(count(b.registry, "uptime.ws.fanout.delivered")).isEqualTo(1);
+        assertThat(a.registry.get("uptime.ws.fanout.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void countsDropsWhenQueuesAreFull() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        // 스레드를 시작하지 않아 큐가 비워지지 않는다
+        RedisWsFanout fanout = new RedisWsFanout(null, null, new ObjectMapper(), registry, 2);
+
+        for (int i = 0; i < 5; i++) fanout.send(CHANNEL, new Ping("p", i));
+        for (int i = 0; i < 4; i++) {
+            fanout.onMessage(new DefaultMessage("uptime:ws:test".getBytes(StandardCharsets.UTF_8), new byte[0]), null);
+        }
+
+        assertThat(registry.get("uptime.ws.fanout.dropped").tag("direction", "out").counter().count()).isEqualTo(3);
+        assertThat(registry.get("uptime.ws.fanout.dropped").tag("direction", "in").counter().count()).isEqualTo(2);
+        assertThat(registry.get("uptime.ws.fanout.queue").tag("direction", "out").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("uptime.ws.fanout.queue").tag("direction", "in").gauge().value()).isEqualTo(2);
+    }
+
+    // 구독을 먼저 등록하고 컨테이너를 띄워야 start() 가 구독 완료까지 기다린다
+    private Node node(LocalRedis redis, int capacity, BlockingQueue<Ping> received) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redis.factory());
+        MeterRegistry registry = new SimpleMeterRegistry();
+        RedisWsFanout fanout = new RedisWsFanout(redis.template(), container, new ObjectMapper(), registry, capacity);
+        fanout.subscribe(CHANNEL, Ping.class, received::add);
+
+        container.afterPropertiesSet();
+        container.start();
+        fanout.start();
+        cleanup.add(container::destroy);
+        cleanup.add(fanout::stop);
+        return new Node(fanout, registry);
+    }
+
+    private static double count(MeterRegistry registry, String name) {
+        return registry.get(name).counter().count();
+    }
+
+    private record Node(RedisWsFanout fanout, MeterRegistry registry) {}
+
+    record Ping(String text, int n) {}
+}
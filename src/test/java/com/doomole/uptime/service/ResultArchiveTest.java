@@ -0,0 +1,59 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.dto.HealthCheckResultResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultArchiveTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 3, 30, 0, 0, 0, 123_000_000);
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        List<HealthCheckResultResponse> rows = List.of(
+                row(T0, HealthStatus.UP, 200, 87, null, 3, 10, 25, 40),
+                row(T0.plusSeconds(30), HealthStatus.DOWN, null, null, "connect timed out", null, null, null, null),
+                row(T0.plusSeconds(60), HealthStatus.DOWN, 503, 1_200, "HTTP 503 — 점검 중", null, null, null, 1_150),
+                row(T0.plusSeconds(90), HealthStatus.DOWN, null, null, "connect timed out", null, null, null, null),
+                row(T0.plusDays(1), HealthStatus.UP, 204, 0, null, 0, 0, 0, 0));
+
+        assertThat(ResultArchive.decode(ByteBuffer.wrap(ResultArchive.encode(rows)))).isEqualTo(rows);
+    }
+
+    @Test
+    void emptyDayRoundTrip() {
+        assertThat(ResultArchive.decode(ByteBuffer.wrap(ResultArchive.encode(List.of())))).isEmpty();
+    }
+
+    // 파일의 epoch 는 UTC 기준이라 서버 시간대가 바뀌어도 같은 observedAt 으로 읽힌다
+    @Test
+    void decodesSameValuesUnderDifferentDefaultZone(@TempDir Path dir) {
+        ResultArchive archive = new ResultArchive(dir.toString(), true);
+        List<HealthCheckResultResponse> rows = List.of(row(T0, HealthStatus.UP, 200, 50, null, null, null, null, null));
+        TimeZone original = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Seoul"));
+            archive.writeDay(1L, T0.toLocalDate(), rows);
+            TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+            assertThat(archive.readDay(1L, T0.toLocalDate())).isEqualTo(rows);
+        } finally {
+            TimeZone.setDefault(original);
+        }
+        assertThat(archive.days(1L)).containsExactly(T0.toLocalDate());
+        assertThat(archive.readDay(1L, LocalDate.of(2000, 1, 1))).isEmpty();
+    }
+
+    private static HealthCheckResultResponse row(LocalDateTime at, HealthStatus status, Integer code, Integer latency,
+                                                 String error, Integer dns, Integer connect, Integer tls, Integer ttfb) {
+        return new HealthCheckResultResponse(null, at, status, code, latency, error, dns, connect, tls, ttfb);
+    }
+}
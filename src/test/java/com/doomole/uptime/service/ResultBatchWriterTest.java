@@ -0,0 +1,59 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.dto.ProbeResult;
+import com.doomole.uptime.service.ResultBatchWriter.StateUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultBatchWriterTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void collapsesStateToOneRowPerMonitor() {
+        List<StateUpdate> states = ResultBatchWriter.collapseStates(List.of(
+                result(1, 0, HealthStatus.DOWN),
+                result(2, 0, HealthStatus.UP),
+                result(1, 60, HealthStatus.DOWN),
+                result(3, 0, HealthStatus.DOWN),
+                result(3, 60, HealthStatus.UP),
+                result(2, 60, HealthStatus.DOWN),
+                result(3, 120, HealthStatus.DOWN)));
+
+        assertThat(states).extracting(s -> s.latest().healthCheckId()).containsExactly(1L, 2L, 3L);
+
+        // 1: 전부 DOWN → DB fail_count + 2
+        assertThat(states.get(0).allDown()).isTrue();
+        assertThat(states.get(0).trailingDown()).isEqualTo(2);
+        assertThat(states.get(0).latest().observedAt()).isEqualTo(T0.plusSeconds(60));
+        // 2: UP 뒤 DOWN 1건 → 1 로 덮음
+        assertThat(states.get(1).allDown()).isFalse();
+        assertThat(states.get(1).trailingDown()).isEqualTo(1);
+        // 3: DOWN, UP, DOWN → 1
+        assertThat(states.get(2).allDown()).isFalse();
+        assertThat(states.get(2).trailingDown()).isEqualTo(1);
+        assertThat(states.get(2).latest().status()).isEqualTo(HealthStatus.DOWN);
+    }
+
+    @Test
+    void endingUpResetsFailCount() {
+        List<StateUpdate> states = ResultBatchWriter.collapseStates(List.of(
+                result(1, 0, HealthStatus.DOWN),
+                result(1, 60, HealthStatus.UP)));
+
+        assertThat(states).singleElement().satisfies(s -> {
+            assertThat(s.allDown()).isFalse();
+            assertThat(s.trailingDown()).isZero();
+            assertThat(s.latest().status()).isEqualTo(HealthStatus.UP);
+        });
+    }
+
+    private static ProbeResult result(long id, long atSeconds, HealthStatus status) {
+        return new ProbeResult(id, T0.plusSeconds(atSeconds), status, status == HealthStatus.UP ? 200 : null,
+                100, status == HealthStatus.UP ? null : "timeout", null, null, null, null);
+    }
+}
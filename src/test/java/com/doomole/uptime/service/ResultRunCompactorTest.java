@@ -0,0 +1,105 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.HealthStatus;
+import com.doomole.uptime.domain.ResultRun;
+import com.doomole.uptime.dto.ProbeResult;
+import com.doomole.uptime.repo.ResultRunRepo;
+import com.doomole.uptime.scheduler.ShardCoordinator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResultRunCompactorTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final long FLUSH_MS = 60_000;
+
+    private ResultRunRepo repo;
+    private ResultRunCompactor compactor;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(ResultRunRepo.class);
+        when(repo.latest(anyCollection())).thenReturn(Map.of());
+        ShardCoordinator single = new ShardCoordinator(null, false, 64, 15_000, "test");
+        compactor = new ResultRunCompactor(repo, single, FLUSH_MS, 300_000, 200, 1.0);
+    }
+
+    @Test
+    void newRunIsWrittenImmediatelyAndExtensionsWaitForFlush() {
+        List<ResultRun> first = compactor.apply(List.of(up(1, 0), up(2, 0)), 0);
+        assertThat(first).hasSize(2);
+        compactor.markPersisted(first, 0);
+
+        // 같은 결과가 이어지면 flushMs 전엔 저장하지 않는다
+        assertThat(compactor.apply(List.of(up(1, 60), up(1, 120)), 1_000)).isEmpty();
+
+        List<ResultRun> flushed = compactor.apply(List.of(up(1, 180)), FLUSH_MS);
+        assertThat(flushed).singleElement().satisfies(run -> {
+            assertThat(run.getHealthCheckId()).isEqualTo(1L);
+            assertThat(run.getCount()).isEqualTo(4);
+            assertThat(run.getEndedAt()).isEqualTo(T0.plusSeconds(180));
+        });
+    }
+
+    @Test
+    void statusChangeClosesRunAndOpensNewOne() {
+        compactor.markPersisted(compactor.apply(List.of(up(1, 0)), 0), 0);
+
+        List<ResultRun> runs = compactor.apply(List.of(up(1, 60), down(1, 120)), 1_000);
+
+        // 닫힌 run(늘어난 부분) + 새 DOWN run
+        assertThat(runs).extracting(ResultRun::getStatus).containsExactly(HealthStatus.UP, HealthStatus.DOWN);
+        assertThat(runs.get(0).getCount()).isEqualTo(2);
+        assertThat(runs.get(1).getStartedAt()).isEqualTo(T0.plusSeconds(120));
+    }
+
+    @Test
+    void unpersistedRunsAreReturnedAgainUntilMarked() {
+        List<ResultRun> runs = compactor.apply(List.of(up(1, 0)), 0);
+        // 트랜잭션 실패로 markPersisted 안 됨 → 다음 배치에 다시 실린다
+        assertThat(compactor.apply(List.of(down(1, 60)), 1_000)).hasSize(2).contains(runs.get(0));
+    }
+
+    @Test
+    void skipsResultsAlreadyFolded() {
+        List<ResultRun> runs = compactor.apply(List.of(up(1, 0), up(1, 60)), 0);
+        compactor.markPersisted(runs, 0);
+
+        // 배치 재시도로 같은 결과가 다시 들어와도 세지 않는다
+        compactor.apply(List.of(up(1, 60)), 1_000);
+        assertThat(runs.get(0).getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void continuesLatestRunFromRepository() {
+        ResultRun stored = new ResultRun(7L, T0, T0.plusSeconds(60), HealthStatus.UP, 200, null,
+                2, 2, 200, 100, 100).loaded();
+        when(repo.latest(anyCollection())).thenReturn(Map.of(7L, stored));
+
+        compactor.apply(List.of(up(7, 120)), 0);
+        compactor.apply(List.of(up(7, 180)), 1_000);
+
+        assertThat(stored.getCount()).isEqualTo(4);
+        verify(repo, times(1)).latest(anyCollection()); // 한 번 읽은 뒤엔 메모리에서 이어감
+    }
+
+    private static ProbeResult up(long id, long atSeconds) {
+        return new ProbeResult(id, T0.plusSeconds(atSeconds), HealthStatus.UP, 200, 100, null,
+                null, null, null, null);
+    }
+
+    private static ProbeResult down(long id, long atSeconds) {
+        return new ProbeResult(id, T0.plusSeconds(atSeconds), HealthStatus.DOWN, null, null, "timeout",
+                null, null, null, null);
+    }
+}
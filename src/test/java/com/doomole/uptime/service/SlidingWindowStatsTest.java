@@ -0,0 +1,192 @@
+package com.doomole.uptime.service;
+
+import com.doomole.uptime.domain.LatencyHistogram;
+import com.doomole.uptime.domain.WindowStats;
+import com.doomole.uptime.service.SlidingWindowStats.MonitorWindow;
+import com.doomole.uptime.service.SlidingWindowStats.Snapshot;
+import org.junit.jupiter.api.Test;
+
+import static com.doomole.uptime.service.SlidingWindowStats.DAY_MINUTES;
+import static com.doomole.uptime.service.SlidingWindowStats.HOUR_MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MonitorWindow 분/시간 버킷: window 경계에서 들어오고 나가는지, min/max·분위수가 같이 따라가는지.
+ */
+class SlidingWindowStatsTest {
+    private static final long M = 29_000_040; // 임의의 epoch minute (정시)
+
+    @Test
+    void sampleStaysInHourUntilSixtyMinutesPass() {
+        MonitorWindow w = new MonitorWindow(M);
+        sample(w, M, true, 100);
+
+        w.advance(M + HOUR_MINUTES - 1);
+        assertThat(w.snapshot.hour().checks()).isEqualTo(1);
+
+        w.advance(M + HOUR_MINUTES);
+        assertThat(w.snapshot.hour()).isEqualTo(WindowStats.EMPTY);
+        assertThat(w.snapshot.hourLatency().p50()).isNull();
+        assertThat(w.snapshot.day().checks()).isEqualTo(1);
+        assertThat(w.snapshot.dayLatency().p50()).isEqualTo(100);
+    }
+
+    @Test
+    void sampleLeavesDayAfter1440Minutes() {
+        MonitorWindow w = new MonitorWindow(M);
+        sample(w, M, false, 100);
+
+        w.advance(M + DAY_MINUTES - 1);
+        assertThat(w.snapshot.day().checks()).isEqualTo(1);
+        assertThat(w.snapshot.day().up()).isZero();
+
+        w.advance(M + DAY_MINUTES);
+        assertThat(w.snapshot).isEqualTo(Snapshot.EMPTY);
+    }
+
+    // 24h 꼬리는 시간 단위: 시간 버킷은 시작 분 기준으로 빠진다
+    @Test
+    void dayTailIsHourGranular() {
+        MonitorWindow w = new MonitorWindow(M);
+        sample(w, M + 30, true, 100);
+        sample(w, M + 61, true, 200);
+
+        w.advance(M + DAY_MINUTES - 1);
+        assertThat(w.snapshot.day().checks()).isEqualTo(2);
+
+        w.advance(M + DAY_MINUTES); // M 시간 버킷 통째로 (M+30 은 30분 일찍)
+        assertThat(w.snapshot.day().checks()).isEqualTo(1);
+        assertThat(w.snapshot.day().latencyMin()).isEqualTo(200);
+        assertThat(w.snapshot.dayLatency()).isEqualTo(histogramOf(200).percentiles());
+    }
+
+    @Test
+    void minutesFoldIntoHourBuckets() {
+        MonitorWindow w = new MonitorWindow(M);
+        for (int m = 0; m < 120; m++) sample(w, M + m, m % 2 == 0, 10 + m);
+
+        w.advance(M + 180);
+        Snapshot s = w.snapshot;
+        assertThat(s.hour()).isEqualTo(WindowStats.EMPTY);
+        assertThat(s.day().checks()).isEqualTo(120);
+        assertThat(s.day().up()).isEqualTo(60);
+        assertThat(s.day().latencyMin()).isEqualTo(10);
+        assertThat(s.day().latencyMax()).isEqualTo(129);
+
+        int[] all = new int[120];
+        for (int m = 0; m < 120; m++) all[m] = 10 + m;
+        assertThat(s.dayLatency()).isEqualTo(histogramOf(all).percentiles());
+
+        // 이미 접힌 시간에 늦게 들어온 값은 그 시간 버킷에 더한다
+        sample(w, M + 5, true, 5);
+        assertThat(w.snapshot.day().checks()).isEqualTo(121);
+        assertThat(w.snapshot.day().latencyMin()).isEqualTo(5);
+    }
+
+    // 하루치를 다 채워도 분 60 + 시간 23 칸뿐
+    @Test
+    void fullDayStaysSmall() {
+        MonitorWindow w = new MonitorWindow(M);
+        for (int m = 0; m < DAY_MINUTES; m++) {
+            for (int k = 0; k < 6; k++) sample(w, M + m, true, 50 + (m * 7 + k * 13) % 400);
+        }
+
+        assertThat(w.snapshot.day().checks()).isEqualTo(DAY_MINUTES * 6L);
+        assertThat(w.estimatedBytes()).isLessThan(32 * 1024);
+    }
+
+    @Test
+    void minMaxAndPercentilesFollowEviction() {
+        MonitorWindow w = new MonitorWindow(M);
+        sample(w, M, true, 10);
+        sample(w, M + 30, true, 500);
+        sample(w, M + 30, false, 700);
+
+        Snapshot s = w.snapshot;
+        assertThat(s.hour().checks()).isEqualTo(3);
+        assertThat(s.hour().up()).isEqualTo(2);
+        assertThat(s.hour().latencyMin()).isEqualTo(10);
+        assertThat(s.hour().latencyMax()).isEqualTo(700);
+        assertThat(s.hour().latencySum()).isEqualTo(1_210);
+        assertThat(s.hourLatency()).isEqualTo(histogramOf(10, 500, 700).percentiles());
+
+        // M 이 hour 에서 빠지면 min 은 남은 분들로 다시 구한다
+        w.advance(M + HOUR_MINUTES);
+        s = w.snapshot;
+        assertThat(s.hour().checks()).isEqualTo(2);
+        assertThat(s.hour().latencyMin()).isEqualTo(500);
+        assertThat(s.hour().latencyMax()).isEqualTo(700);
+        assertThat(s.hourLatency().p99()).isEqualTo(700);
+        assertThat(s.day().latencyMin()).isEqualTo(10);
+        assertThat(s.hourLatency()).isEqualTo(histogramOf(500, 700).percentiles());
+        assertThat(s.dayLatency()).isEqualTo(histogramOf(10, 500, 700).percentiles());
+    }
+
+    @Test
+    void lateSamplesLandInTheirMinute() {
+        MonitorWindow w = new MonitorWindow(M + 100);
+        sample(w, M + 90, true, 50);   // hour 안 (늦게 도착)
+        sample(w, M + 10, true, 900);  // hour 밖, day 안
+        sample(w, M + 100 - DAY_MINUTES, true, 1); // day 밖 → 무시
+
+        Snapshot s = w.snapshot;
+        assertThat(s.hour().checks()).isEqualTo(1);
+        assertThat(s.hour().latencyMax()).isEqualTo(50);
+        assertThat(s.day().checks()).isEqualTo(2);
+        assertThat(s.day().latencyMin()).isEqualTo(50);
+        assertThat(s.day().latencyMax()).isEqualTo(900);
+    }
+
+    @Test
+    void sampleAheadOfHeadAdvancesWindow() {
+        MonitorWindow w = new MonitorWindow(M);
+        sample(w, M, true, 100);
+        sample(w, M + HOUR_MINUTES + 5, true, 200);
+
+        assertThat(w.snapshot.hour().checks()).isEqualTo(1);
+        assertThat(w.snapshot.hour().latencyMin()).isEqualTo(200);
+        assertThat(w.snapshot.day().checks()).isEqualTo(2);
+    }
+
+    @Test
+    void replaceSwapsMinuteBucket() {
+        MonitorWindow w = new MonitorWindow(M);
+        sample(w, M - 2, true, 100);
+        sample(w, M - 2, true, 100);
+
+        LatencyHistogram rollup = histogramOf(300, 300, 300);
+        w.add(M - 2, 3, 1, 3, 900, 300, 300, true, rollup, MonitorWindow.NONE);
+
+        Snapshot s = w.snapshot;
+        assertThat(s.hour().checks()).isEqualTo(3);
+        assertThat(s.hour().up()).isEqualTo(1);
+        assertThat(s.hour().latencyMin()).isEqualTo(300);
+        assertThat(s.hourLatency()).isEqualTo(rollup.percentiles());
+        assertThat(s.dayLatency()).isEqualTo(rollup.percentiles());
+    }
+
+    @Test
+    void jumpLongerThanDayResetsEverything() {
+        MonitorWindow w = new MonitorWindow(M);
+        sample(w, M, true, 100);
+        sample(w, M + 5, true, 100);
+
+        w.advance(M + 5 + DAY_MINUTES * 3L);
+        assertThat(w.snapshot).isEqualTo(Snapshot.EMPTY);
+
+        sample(w, M + 5 + DAY_MINUTES * 3L, true, 42);
+        assertThat(w.snapshot.day().checks()).isEqualTo(1);
+        assertThat(w.snapshot.day().latencyMin()).isEqualTo(42);
+    }
+
+    private static void sample(MonitorWindow w, long minute, boolean up, int latency) {
+        w.add(minute, 1, up ? 1 : 0, 1, latency, latency, latency, false, null, LatencyHistogram.bucketOf(latency));
+    }
+
+    // 같은 값들을 한 히스토그램에 넣었을 때의 분위수가 기준
+    private static LatencyHistogram histogramOf(int... latencies) {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int v : latencies) h.record(v);
+        return h;
+    }
+}
@@ -0,0 +1,67 @@
+package com.doomole.uptime.support;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 테스트용 로컬 Redis 연결 (기본 localhost:6379, REDIS_HOST/REDIS_PORT 로 변경).
+ * 개발용 데이터와 섞이지 않게 DB 15 를 쓰고 연결 시 비운다. Redis 가 없으면 테스트를 건너뛴다.
+ */
+public final class LocalRedis implements AutoCloseable {
+    private static final int DATABASE = 15;
+
+    private final LettuceConnectionFactory factory;
+    private final StringRedisTemplate template;
+
+    private LocalRedis(LettuceConnectionFactory factory) {
+        this.factory = factory;
+        this.template = new StringRedisTemplate(factory);
+    }
+
+    public static LocalRedis connect() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+
+        RedisStandaloneConfiguration conf = new RedisStandaloneConfiguration(host, port);
+        conf.setDatabase(DATABASE);
+        LettuceClientConfiguration client = LettuceClientConfiguration.builder()
+                .commandTimeout(Duration.ofSeconds(2))
+                .clientOptions(ClientOptions.builder()
+                        .socketOptions(SocketOptions.builder().connectTimeout(Duration.ofSeconds(1)).build())
+                        .build())
+                .build();
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(conf, client);
+        factory.afterPropertiesSet();
+        factory.start();
+
+        try (RedisConnection c = factory.getConnection()) {
+            c.serverCommands().flushDb();
+        } catch (Exception e) {
+            factory.destroy();
+            assumeTrue(false, "local Redis not available at " + host + ":" + port + ": " + e);
+        }
+        return new LocalRedis(factory);
+    }
+
+    public LettuceConnectionFactory factory() {
+        return factory;
+    }
+
+    public StringRedisTemplate template() {
+        return template;
+    }
+
+    @Override
+    public void close() {
+        factory.destroy();
+    }
+}